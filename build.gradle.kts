@@ -2,15 +2,23 @@ plugins {
     java
     id("org.springframework.boot") version "3.1.3"
     id("io.spring.dependency-management") version "1.1.3"
+    id("me.champeau.jmh") version "0.7.1"
 }
 
 group = "com"
 version = "0.0.1-SNAPSHOT"
 
+// -PjavaVersion=21 builds and runs on a JDK 21 toolchain, which the "virtual" profile needs
+val javaVersion = (findProperty("javaVersion") ?: "17").toString()
+
 java {
-    sourceCompatibility = JavaVersion.VERSION_17
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(javaVersion))
+    }
 }
 
+val loadtest: SourceSet by sourceSets.creating
+
 configurations {
     compileOnly {
         extendsFrom(configurations.annotationProcessor.get())
@@ -24,6 +32,18 @@ repositories {
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.springframework.boot:spring-boot-starter-web")
+    implementation("org.springframework.boot:spring-boot-starter-cache")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("org.springframework.boot:spring-boot-starter-webflux")
+    implementation("org.springframework:spring-r2dbc")
+    implementation("io.r2dbc:r2dbc-pool")
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    implementation("com.github.ben-manes.caffeine:jcache")
+    implementation("org.hibernate.orm:hibernate-jcache")
+    implementation("org.hibernate.orm:hibernate-micrometer")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
+    implementation("org.flywaydb:flyway-core")
+    implementation("org.flywaydb:flyway-mysql")
     implementation("com.fasterxml.jackson.datatype:jackson-datatype-jsr310:2.15.2")
     implementation("org.mapstruct:mapstruct:1.5.5.Final")
     implementation("jakarta.validation:jakarta.validation-api:3.0.2")
@@ -43,6 +63,8 @@ dependencies {
 
     runtimeOnly("com.mysql:mysql-connector-j")
     runtimeOnly("com.h2database:h2")
+    runtimeOnly("io.asyncer:r2dbc-mysql")
+    runtimeOnly("io.r2dbc:r2dbc-h2")
 
     developmentOnly("org.springframework.boot:spring-boot-devtools")
 }
@@ -50,3 +72,30 @@ dependencies {
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+// Benchmarks live in src/jmh/java, run them with ./gradlew jmh [-PjmhIncludes=WeekView]
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    jvmArgsAppend.add("-Xmx4g")
+    project.findProperty("jmhIncludes")?.let { includes.add(it.toString()) }
+}
+
+// Drives a running instance, e.g. once started normally and once with --spring.profiles.active=virtual:
+// ./gradlew loadTest -PbaseUrl=http://localhost:8080 -Plabel=virtual -Pconcurrency=200 -Pseconds=60
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Measures throughput and latency percentiles of the week view and create-event endpoints."
+    classpath = loadtest.runtimeClasspath
+    mainClass.set("com.tutoring_calendar.loadtest.LoadTest")
+    systemProperty("loadtest.baseUrl", findProperty("baseUrl") ?: "http://localhost:8080")
+    systemProperty("loadtest.label", findProperty("label") ?: "platform")
+    systemProperty("loadtest.concurrency", findProperty("concurrency") ?: "100")
+    systemProperty("loadtest.seconds", findProperty("seconds") ?: "30")
+    systemProperty("loadtest.resultsDir", layout.buildDirectory.dir("results/loadtest").get().asFile.path)
+}
@@ -0,0 +1,138 @@
+package com.tutoring_calendar.benchmarks;
+
+import com.tutoring_calendar.TutoringCalendarApplication;
+import com.tutoring_calendar.enums.ClientStatus;
+import com.tutoring_calendar.enums.EventStatus;
+import com.tutoring_calendar.services.EventService;
+import com.tutoring_calendar.services.IncomeLedgerService;
+import com.tutoring_calendar.services.RecurrenceService;
+import com.tutoring_calendar.services.SettlementService;
+import com.tutoring_calendar.services.WeekViewCache;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Boots the application against a private in-memory H2 database and seeds it with {@code eventCount}
+ * events over two years, {@code seriesPercent} percent of which start repeatable series in the first four weeks.
+ */
+@State(Scope.Benchmark)
+public class CalendarDataset {
+
+    static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 2);
+    static final int WEEKS = 104;
+
+    private static final int CLIENT_COUNT = 1_000;
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param({"100", "10000", "1000000"})
+    public int eventCount;
+
+    // A share rather than a count, a count above eventCount would only repeat the trial of a smaller one
+    @Param({"1", "10"})
+    public int seriesPercent;
+
+    ConfigurableApplicationContext context;
+    JdbcTemplate jdbcTemplate;
+    EventService eventService;
+    RecurrenceService recurrenceService;
+    SettlementService settlementService;
+    IncomeLedgerService incomeLedgerService;
+    WeekViewCache weekViewCache;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(TutoringCalendarApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--calendar.events.stream-fetch-size=500",
+                        "--logging.level.root=WARN");
+
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        eventService = context.getBean(EventService.class);
+        recurrenceService = context.getBean(RecurrenceService.class);
+        settlementService = context.getBean(SettlementService.class);
+        incomeLedgerService = context.getBean(IncomeLedgerService.class);
+        weekViewCache = context.getBean(WeekViewCache.class);
+
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    /**
+     * A date in the second year of the dataset, cycling over eight weeks.
+     */
+    LocalDate viewedWeek(int index) {
+        return FIRST_DAY.plusWeeks(60 + Math.floorMod(index, 8)).plusDays(2);
+    }
+
+    LocalDate lastDay() {
+        return FIRST_DAY.plusWeeks(WEEKS).minusDays(1);
+    }
+
+    private void seed() {
+        jdbcTemplate.batchUpdate("INSERT INTO clients (id, full_name, deposit, status) VALUES (?, ?, ?, ?)",
+                IntStream.rangeClosed(1, CLIENT_COUNT).boxed().toList(), BATCH_SIZE, (ps, id) -> {
+                    ps.setLong(1, id);
+                    ps.setString(2, "Client " + id);
+                    ps.setBigDecimal(3, BigDecimal.ZERO);
+                    ps.setInt(4, ClientStatus.ACTIVE.ordinal());
+                });
+
+        Random random = new Random(42);
+        int series = Math.max(1, eventCount * seriesPercent / 100);
+        for (int first = 1; first <= eventCount; first += BATCH_SIZE) {
+            List<Integer> ids = new ArrayList<>();
+            for (int id = first; id < first + BATCH_SIZE && id <= eventCount; id++) {
+                ids.add(id);
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO events (id, client_id, price, date, start_time, finish_time, repeatable, status, original_id) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", ids, BATCH_SIZE, (ps, id) -> {
+                boolean repeatable = id <= series;
+                LocalDate date = FIRST_DAY.plusDays(random.nextInt(repeatable ? 28 : WEEKS * 7));
+                LocalTime startTime = LocalTime.of(8 + random.nextInt(12), 0);
+                ps.setLong(1, id);
+                ps.setLong(2, 1 + random.nextInt(CLIENT_COUNT));
+                ps.setBigDecimal(3, BigDecimal.valueOf(100 + random.nextInt(5) * 50L));
+                ps.setObject(4, date);
+                ps.setObject(5, startTime);
+                ps.setObject(6, startTime.plusHours(1));
+                ps.setBoolean(7, repeatable);
+                ps.setInt(8, EventStatus.CREATED.ordinal());
+                // Every seeded event is its own original, occurrences are only created by the benchmarks
+                ps.setLong(9, id);
+            });
+        }
+
+        // The rows above were inserted with explicit ids, move the pooled sequences past them
+        jdbcTemplate.execute("ALTER SEQUENCE clients_seq RESTART WITH " + (CLIENT_COUNT + 1));
+        jdbcTemplate.execute("ALTER SEQUENCE events_seq RESTART WITH " + (eventCount + 1));
+
+        incomeLedgerService.rebuild();
+    }
+}
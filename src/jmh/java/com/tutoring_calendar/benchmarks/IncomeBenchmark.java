@@ -0,0 +1,33 @@
+package com.tutoring_calendar.benchmarks;
+
+import com.tutoring_calendar.dto.IncomeSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the week and month income figures read from the income ledger.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IncomeBenchmark {
+
+    @State(Scope.Thread)
+    public static class WeekCursor {
+        int week;
+    }
+
+    @Benchmark
+    public IncomeSummary calculateIncome(CalendarDataset dataset, WeekCursor cursor) {
+        LocalDate date = dataset.viewedWeek(cursor.week++);
+        return dataset.eventService.calculateIncome(date, date.with(DayOfWeek.MONDAY), date.with(DayOfWeek.SUNDAY), List.of());
+    }
+}
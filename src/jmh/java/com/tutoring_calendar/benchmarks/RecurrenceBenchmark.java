@@ -0,0 +1,31 @@
+package com.tutoring_calendar.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of materializing every series into a week that has no occurrences yet. Each invocation takes
+ * the next week after the dataset, so there is always a full week of work.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RecurrenceBenchmark {
+
+    @State(Scope.Thread)
+    public static class WeekCursor {
+        int week = CalendarDataset.WEEKS;
+    }
+
+    @Benchmark
+    public int materializeWeek(CalendarDataset dataset, WeekCursor cursor) {
+        LocalDate startOfWeek = CalendarDataset.FIRST_DAY.plusWeeks(cursor.week++);
+        return dataset.recurrenceService.materializeWeek(startOfWeek, startOfWeek.plusDays(6));
+    }
+}
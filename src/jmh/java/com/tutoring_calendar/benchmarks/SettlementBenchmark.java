@@ -0,0 +1,36 @@
+package com.tutoring_calendar.benchmarks;
+
+import com.tutoring_calendar.enums.EventStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to settle the whole dataset, the work of {@code EventService.proceedCompletedEvents} after a
+ * long pause. Every iteration first puts all events back to {@code CREATED}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class SettlementBenchmark {
+
+    @Setup(Level.Iteration)
+    public void reopenEvents(CalendarDataset dataset) {
+        dataset.jdbcTemplate.update("UPDATE events SET status = ?", EventStatus.CREATED.ordinal());
+        dataset.jdbcTemplate.update("DELETE FROM settlement_checkpoints");
+        dataset.incomeLedgerService.rebuild();
+    }
+
+    @Benchmark
+    public int settleDueEvents(CalendarDataset dataset) {
+        return dataset.settlementService.settleDueEvents(dataset.lastDay().atTime(LocalTime.MAX));
+    }
+}
@@ -0,0 +1,45 @@
+package com.tutoring_calendar.benchmarks;
+
+import com.tutoring_calendar.dto.EventResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@code EventService.getEventsForSelectedWeek} over eight already materialized weeks,
+ * assembled from the database (cold) and served from the week view cache (cached).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WeekViewBenchmark {
+
+    @State(Scope.Thread)
+    public static class WeekCursor {
+        int week;
+
+        @Setup(Level.Trial)
+        public void materializeWeeks(CalendarDataset dataset) {
+            for (int i = 0; i < 8; i++) {
+                dataset.eventService.getEventsForSelectedWeek(dataset.viewedWeek(i));
+            }
+        }
+    }
+
+    @Benchmark
+    public EventResponse coldWeekView(CalendarDataset dataset, WeekCursor cursor) {
+        dataset.weekViewCache.evictAll();
+        return dataset.eventService.getEventsForSelectedWeek(dataset.viewedWeek(cursor.week++));
+    }
+
+    @Benchmark
+    public EventResponse cachedWeekView(CalendarDataset dataset, WeekCursor cursor) {
+        return dataset.eventService.getEventsForSelectedWeek(dataset.viewedWeek(cursor.week++));
+    }
+}
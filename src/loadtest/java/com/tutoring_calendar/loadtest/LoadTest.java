@@ -0,0 +1,174 @@
+package com.tutoring_calendar.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop load generator: {@code loadtest.concurrency} workers send requests back to back for
+ * {@code loadtest.seconds}, three week views for every created event. Prints throughput and latency
+ * percentiles per endpoint and writes them to {@code <resultsDir>/<label>.json} to compare the
+ * platform and the virtual thread runs. Creates events, so point it at a scratch database.
+ */
+public class LoadTest {
+
+    private static final LocalDate FIRST_WEEK = LocalDate.of(2030, 1, 7);
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("loadtest.baseUrl", "http://localhost:8080");
+        String label = System.getProperty("loadtest.label", "platform");
+        int concurrency = Integer.getInteger("loadtest.concurrency", 100);
+        int seconds = Integer.getInteger("loadtest.seconds", 30);
+        Path resultsDir = Path.of(System.getProperty("loadtest.resultsDir", "build/results/loadtest"));
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(4))
+                .build();
+
+        Endpoint weekView = new Endpoint("GET /events/{date}");
+        Endpoint createEvent = new Endpoint("POST /events/create-event");
+
+        System.out.printf("Running %s against %s with %d workers for %d s%n", label, baseUrl, concurrency, seconds);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            workers.submit(() -> {
+                int iteration = 0;
+                while (running.get()) {
+                    if (iteration++ % 4 == 3) {
+                        createEvent.call(httpClient, createEventRequest(baseUrl));
+                    } else {
+                        weekView.call(httpClient, weekViewRequest(baseUrl));
+                    }
+                }
+            });
+        }
+
+        TimeUnit.SECONDS.sleep(seconds);
+        running.set(false);
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+
+        List<String> results = new ArrayList<>();
+        for (Endpoint endpoint : List.of(weekView, createEvent)) {
+            System.out.println(endpoint.summary(elapsedSeconds));
+            results.add(endpoint.toJson(elapsedSeconds));
+        }
+
+        Files.createDirectories(resultsDir);
+        Path resultsFile = resultsDir.resolve(label + ".json");
+        Files.writeString(resultsFile, String.format(Locale.ROOT,
+                "{\"label\":\"%s\",\"concurrency\":%d,\"seconds\":%.1f,\"endpoints\":[%s]}%n",
+                label, concurrency, elapsedSeconds, String.join(",", results)));
+        System.out.println("Results written to " + resultsFile);
+        System.exit(0);
+    }
+
+    private static HttpRequest weekViewRequest(String baseUrl) {
+        LocalDate date = FIRST_WEEK.plusDays(ThreadLocalRandom.current().nextInt(52 * 7));
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/events/" + date))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private static HttpRequest createEventRequest(String baseUrl) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate date = FIRST_WEEK.plusDays(random.nextInt(52 * 7));
+        int hour = 8 + random.nextInt(12);
+        String body = String.format(Locale.ROOT,
+                "{\"client\":{\"fullName\":\"Load Test Client %d\"},\"price\":200,\"date\":\"%s\"," +
+                "\"startTime\":\"%02d:00:00\",\"finishTime\":\"%02d:00:00\",\"repeatable\":false,\"originalId\":-1}",
+                random.nextInt(50), date, hour, hour + 1);
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/events/create-event"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static class Endpoint {
+
+        private final String name;
+        private final AtomicInteger errors = new AtomicInteger();
+        private long[] latencies = new long[1 << 16];
+        private int count;
+
+        Endpoint(String name) {
+            this.name = name;
+        }
+
+        void call(HttpClient httpClient, HttpRequest request) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                // A lesson slot that is already taken is refused with 409, that is not a failure
+                if (response.statusCode() >= 400 && response.statusCode() != 409) {
+                    errors.incrementAndGet();
+                }
+            } catch (IOException e) {
+                errors.incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            record(System.nanoTime() - start);
+        }
+
+        private synchronized void record(long latencyNanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+        }
+
+        synchronized String summary(double elapsedSeconds) {
+            long[] sorted = sorted();
+            return String.format(Locale.ROOT, "%-28s %8d requests %6d errors %10.1f req/s  p50 %8.2f ms  p99 %8.2f ms  max %8.2f ms",
+                    name, count, errors.get(), count / elapsedSeconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0));
+        }
+
+        synchronized String toJson(double elapsedSeconds) {
+            long[] sorted = sorted();
+            return String.format(Locale.ROOT,
+                    "{\"name\":\"%s\",\"requests\":%d,\"errors\":%d,\"throughput\":%.2f,\"p50Ms\":%.3f,\"p99Ms\":%.3f,\"maxMs\":%.3f}",
+                    name, count, errors.get(), count / elapsedSeconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0));
+        }
+
+        private long[] sorted() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
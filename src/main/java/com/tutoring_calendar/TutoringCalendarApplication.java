@@ -2,10 +2,17 @@ package com.tutoring_calendar;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication(scanBasePackages = "com.tutoring_calendar")
+// The R2DBC connection of the "reactive" profile is set up in ReactiveConfig, the auto-configured
+// R2DBC transaction manager would otherwise take the place of the JPA one
+@SpringBootApplication(scanBasePackages = "com.tutoring_calendar",
+        exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 @EnableScheduling
+@EnableCaching
 public class TutoringCalendarApplication {
 
     public static void main(String[] args) {
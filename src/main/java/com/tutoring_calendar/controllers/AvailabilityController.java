@@ -0,0 +1,58 @@
+package com.tutoring_calendar.controllers;
+
+import com.tutoring_calendar.dto.AvailableSlot;
+import com.tutoring_calendar.services.AvailabilityService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@CrossOrigin("*")
+@Slf4j
+public class AvailabilityController {
+
+    private static final int MAX_RANGE_DAYS = 366;
+    private static final int MAX_DURATION_MINUTES = 24 * 60;
+
+    private final AvailabilityService availabilityService;
+
+    public AvailabilityController(AvailabilityService availabilityService) {
+        this.availabilityService = availabilityService;
+    }
+
+    /**
+     * Returns the free stretches of the working hours long enough for a lesson of {@code duration}
+     * minutes. Without a range the coming week is searched.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<List<AvailableSlot>> getAvailability(@RequestParam(required = false) LocalDate from,
+                                                               @RequestParam(required = false) LocalDate to,
+                                                               @RequestParam(defaultValue = "60") int duration) {
+        LocalDate firstDay = from != null ? from : LocalDate.now();
+        LocalDate lastDay = to != null ? to : firstDay.plusDays(6);
+        log.info("Received request to find free slots of {} minutes from {} to {}.", duration, firstDay, lastDay);
+
+        if(duration <= 0 || duration > MAX_DURATION_MINUTES || lastDay.isBefore(firstDay)
+                || ChronoUnit.DAYS.between(firstDay, lastDay) >= MAX_RANGE_DAYS){
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<AvailableSlot> slots = availabilityService.findAvailableSlots(firstDay, lastDay, duration);
+        if(slots.isEmpty()){
+            log.info("No free slots found.");
+            return ResponseEntity.noContent().build();
+        }
+
+        log.info("Returning {} free slots.", slots.size());
+        return ResponseEntity.ok(slots);
+    }
+}
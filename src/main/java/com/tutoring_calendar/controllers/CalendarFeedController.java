@@ -0,0 +1,53 @@
+package com.tutoring_calendar.controllers;
+
+import com.tutoring_calendar.services.CalendarFeedService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@CrossOrigin("*")
+@Slf4j
+public class CalendarFeedController {
+
+    private static final String TEXT_CALENDAR = "text/calendar;charset=UTF-8";
+
+    private final CalendarFeedService calendarFeedService;
+
+    public CalendarFeedController(CalendarFeedService calendarFeedService) {
+        this.calendarFeedService = calendarFeedService;
+    }
+
+    /**
+     * Answers 304 when {@code If-None-Match} or {@code If-Modified-Since} show the feed has not changed,
+     * which is checked without reading the database. Otherwise the feed is written as it is read.
+     */
+    @GetMapping("/calendar.ics")
+    public void getCalendarFeed(ServletWebRequest webRequest, HttpServletResponse response) throws IOException {
+        log.debug("Received request to get the calendar feed.");
+
+        LocalDate firstDay = calendarFeedService.getFirstDay();
+        if(webRequest.checkNotModified(calendarFeedService.getEtag(firstDay), calendarFeedService.getLastModified())){
+            log.debug("Calendar feed not modified.");
+            return;
+        }
+
+        response.setContentType(TEXT_CALENDAR);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        Writer writer = new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8);
+        calendarFeedService.writeFeed(firstDay, writer);
+    }
+}
@@ -1,21 +1,31 @@
 package com.tutoring_calendar.controllers;
 
 import com.tutoring_calendar.dto.ClientResponse;
+import com.tutoring_calendar.dto.DepositTotals;
 import com.tutoring_calendar.models.Client;
 import com.tutoring_calendar.services.ClientService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
-import java.util.List;
+import java.util.Set;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/clients")
 @CrossOrigin("*")
 @Slf4j
 public class ClientController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final Set<String> SORTABLE_FIELDS = Set.of("fullName", "deposit", "id");
+
     private final ClientService clientService;
 
     public ClientController(ClientService clientService) {
@@ -23,29 +33,40 @@ public class ClientController {
     }
 
     @GetMapping("")
-    public ResponseEntity<ClientResponse> getAllClients(){
-        log.info("Received request to get all clients.");
-
-        List<Client> clients = clientService.getAllClients();
-        BigDecimal notPaid = clientService.countNotPaidIncome(clients);
-        BigDecimal paidForward = clientService.countPaidForwardIncome(clients);
+    public ResponseEntity<ClientResponse> getAllClients(@RequestParam(defaultValue = "0") int page,
+                                                        @RequestParam(defaultValue = "50") int size,
+                                                        @RequestParam(defaultValue = "fullName") String sort,
+                                                        @RequestParam(defaultValue = "ASC") Sort.Direction direction){
+        log.info("Received request to get clients, page {} of size {} sorted by {} {}.", page, size, sort, direction);
+
+        if(page < 0 || !SORTABLE_FIELDS.contains(sort)){
+            return ResponseEntity.badRequest().build();
+        }
 
-        ClientResponse clientResponse = new ClientResponse(clients, notPaid, paidForward);
+        // The id keeps the order stable between pages when the sort field has equal values
+        Pageable pageable = PageRequest.of(page, Math.max(1, Math.min(size, MAX_PAGE_SIZE)),
+                Sort.by(direction, sort).and(Sort.by("id")));
+        Slice<Client> clients = clientService.getActiveClients(pageable);
 
-        if(clients.isEmpty()){
+        if(!clients.hasContent()){
             log.info("No clients found.");
             return ResponseEntity.noContent().build();
         }
 
-        log.info("Returning {} clients.", clients.size());
+        DepositTotals totals = clientService.getDepositTotals();
+        ClientResponse clientResponse = new ClientResponse(clients.getContent(), totals.getNotPaid(), totals.getPaidForward(),
+                clients.getNumber(), clients.getSize(), clients.hasNext());
+
+        log.info("Returning {} clients.", clients.getNumberOfElements());
         return ResponseEntity.ok(clientResponse);
     }
 
     @PutMapping("/change-deposit")
-    public ResponseEntity<Object> changeClientDeposit(@RequestParam Long clientId, @RequestParam BigDecimal newDepositAmount){
+    public ResponseEntity<Object> changeClientDeposit(@RequestParam Long clientId, @RequestParam BigDecimal newDepositAmount,
+                                                      @RequestParam(required = false) Long expectedVersion){
         log.info("Received request to change deposit for client with ID {}. New deposit amount: {}", clientId, newDepositAmount);
 
-        boolean updated = clientService.updateDeposit(clientId, newDepositAmount);
+        boolean updated = clientService.updateDeposit(clientId, newDepositAmount, expectedVersion);
         if(!updated){
             log.info("Client with ID {} not found.", clientId);
             return ResponseEntity.notFound().build();
@@ -55,6 +76,20 @@ public class ClientController {
         return ResponseEntity.noContent().build();
     }
 
+    @PutMapping("/adjust-deposit")
+    public ResponseEntity<Object> adjustClientDeposit(@RequestParam Long clientId, @RequestParam BigDecimal amount){
+        log.info("Received request to adjust deposit for client with ID {} by {}.", clientId, amount);
+
+        boolean adjusted = clientService.adjustDeposit(clientId, amount);
+        if(!adjusted){
+            log.info("Client with ID {} not found.", clientId);
+            return ResponseEntity.notFound().build();
+        }
+
+        log.info("Deposit for client with ID {} adjusted successfully.", clientId);
+        return ResponseEntity.noContent().build();
+    }
+
     @PutMapping("/archive")
     public ResponseEntity<Object> archiveClient(@RequestParam Long clientId){
         log.info("Received request to archive client with ID {}.", clientId);
@@ -1,47 +1,112 @@
 package com.tutoring_calendar.controllers;
 
-import com.tutoring_calendar.dto.EventResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tutoring_calendar.dto.EventBatchItemResult;
+import com.tutoring_calendar.dto.EventFilter;
+import com.tutoring_calendar.dto.EventPage;
 import com.tutoring_calendar.dto.EventUpdateDTO;
+import com.tutoring_calendar.dto.WeekSnapshot;
+import com.tutoring_calendar.enums.EventStatus;
 import com.tutoring_calendar.models.Event;
+import com.tutoring_calendar.services.ChangeFeedService;
 import com.tutoring_calendar.services.EventService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.net.URI;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @CrossOrigin("*")
 @Slf4j
 public class EventController {
 
+    private static final int MAX_PAGE_LIMIT = 500;
+
     private final EventService eventService;
+    private final ChangeFeedService changeFeedService;
+    private final ObjectMapper objectMapper;
 
-    public EventController(EventService eventService) {
+    public EventController(EventService eventService, ChangeFeedService changeFeedService, ObjectMapper objectMapper) {
         this.eventService = eventService;
+        this.changeFeedService = changeFeedService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/events")
-    public ResponseEntity<List<Event>> getAllEvents(){
-        List<Event> events = eventService.getAllEvents();
-        if(events.isEmpty()){
+    public void getAllEvents(@RequestParam(required = false) LocalDate from,
+                             @RequestParam(required = false) LocalDate to,
+                             @RequestParam(required = false) Long clientId,
+                             @RequestParam(required = false) EventStatus status,
+                             HttpServletResponse response) throws IOException {
+        EventFilter filter = new EventFilter(from, to, clientId, status);
+
+        EventListStreamWriter writer = new EventListStreamWriter(response, objectMapper);
+        eventService.streamEvents(filter, writer);
+        writer.finish(eventService::getClientViews);
+    }
+
+    /**
+     * Pushes changes to events and clients as server-sent events. A reconnecting client sends the id of
+     * the last event it received in {@code Last-Event-ID} and gets what it missed first.
+     */
+    @GetMapping(value = "/events/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        log.debug("Received request to stream changes after event ID {}.", lastEventId);
+
+        return changeFeedService.subscribe(lastEventId);
+    }
+
+    @GetMapping("/events/page")
+    public ResponseEntity<EventPage> getEventsPage(@RequestParam(required = false) LocalDate from,
+                                                   @RequestParam(required = false) LocalDate to,
+                                                   @RequestParam(required = false) Long clientId,
+                                                   @RequestParam(required = false) EventStatus status,
+                                                   @RequestParam(required = false) String token,
+                                                   @RequestParam(defaultValue = "50") int limit) {
+        EventFilter filter = new EventFilter(from, to, clientId, status);
+        int pageLimit = Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
+
+        EventPage page = eventService.getEventsPage(filter, token, pageLimit);
+        if(page.getEvents().isEmpty()){
             return ResponseEntity.noContent().build();
         }
-        return ResponseEntity.ok(events);
+        return ResponseEntity.ok(page);
     }
 
+    /**
+     * Answers 304 when {@code If-None-Match} carries the week's current ETag, which is checked without
+     * reading the database. Otherwise the cached JSON of the week is written as it is.
+     */
     @GetMapping("/events/{date}")
-    public ResponseEntity<EventResponse> getEventsByWeek(@PathVariable LocalDate date) {
+    public ResponseEntity<byte[]> getEventsByWeek(@PathVariable LocalDate date, WebRequest webRequest) {
         log.debug("Received request to get events for week with date: {}", date);
 
-        EventResponse eventResponse = eventService.getEventsForSelectedWeek(date);
+        if(webRequest.checkNotModified(eventService.getWeekEtag(date))){
+            log.debug("Week with date {} not modified.", date);
+            return null;
+        }
+
+        WeekSnapshot snapshot = eventService.getWeekSnapshot(date);
 
         log.info("Successfully retrieved events and calculated incomes for the selected week.");
-        return ResponseEntity.ok(eventResponse);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(snapshot.etag())
+                .body(snapshot.json());
     }
 
     @PostMapping("/events/update")
@@ -84,4 +149,17 @@ public class EventController {
         }).orElse(ResponseEntity.noContent().build());
     }
 
+    @PostMapping("/events/batch")
+    public ResponseEntity<List<EventBatchItemResult>> createNewEvents(@RequestBody List<Event> newEvents){
+        log.info("Received request to create a batch of {} events.", newEvents.size());
+
+        if(newEvents.isEmpty()){
+            return ResponseEntity.noContent().build();
+        }
+
+        List<EventBatchItemResult> results = eventService.addEvents(newEvents);
+
+        log.info("Batch processed, {} of {} events created.", results.stream().filter(EventBatchItemResult::isCreated).count(), results.size());
+        return ResponseEntity.ok(results);
+    }
 }
@@ -0,0 +1,74 @@
+package com.tutoring_calendar.controllers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tutoring_calendar.dto.ClientView;
+import com.tutoring_calendar.dto.EventView;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Writes events to the response as the {@code events} array of a JSON object while they are produced,
+ * and their clients as the {@code clients} map after the last event. The response is only started with
+ * the first event, so an empty result can still be answered with 204.
+ */
+class EventListStreamWriter implements Consumer<EventView> {
+
+    private final HttpServletResponse response;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter eventWriter;
+    private final Set<Long> clientIds = new LinkedHashSet<>();
+    private JsonGenerator generator;
+
+    EventListStreamWriter(HttpServletResponse response, ObjectMapper objectMapper) {
+        this.response = response;
+        this.objectMapper = objectMapper;
+        this.eventWriter = objectMapper.writerFor(EventView.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    public void accept(EventView event) {
+        try {
+            if (generator == null) {
+                response.setStatus(HttpStatus.OK.value());
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("events");
+            }
+            eventWriter.writeValue(generator, event);
+            clientIds.add(event.getClientId());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Closes the events and writes the clients {@code clientLookup} returns for their IDs, or answers
+     * with 204 when nothing was written.
+     */
+    void finish(Function<Collection<Long>, Map<Long, ClientView>> clientLookup) throws IOException {
+        if (generator == null) {
+            response.setStatus(HttpStatus.NO_CONTENT.value());
+            return;
+        }
+        generator.writeEndArray();
+        generator.writeFieldName("clients");
+        objectMapper.writeValue(generator, clientLookup.apply(clientIds));
+        generator.close();
+    }
+}
@@ -1,16 +1,38 @@
 package com.tutoring_calendar.controllers;
 
+import com.tutoring_calendar.exceptions.DepositConflictException;
+import com.tutoring_calendar.exceptions.EventConflictException;
 import com.tutoring_calendar.exceptions.EventNotFoundException;
+import com.tutoring_calendar.exceptions.InvalidPageTokenException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 @ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
     @ExceptionHandler({EventNotFoundException.class})
     public ResponseEntity<Object> handleInternalServerExceptions(Exception ex){
         return ResponseEntity.internalServerError().body(ex.getMessage());
     }
+
+    @ExceptionHandler({DepositConflictException.class, ObjectOptimisticLockingFailureException.class})
+    public ResponseEntity<Object> handleConflictExceptions(Exception ex){
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    @ExceptionHandler({EventConflictException.class})
+    public ResponseEntity<Object> handleEventConflictException(EventConflictException ex){
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getConflicts());
+    }
+
+    @ExceptionHandler({InvalidPageTokenException.class})
+    public ResponseEntity<Object> handleBadRequestExceptions(Exception ex){
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
 }
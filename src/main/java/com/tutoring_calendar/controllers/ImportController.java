@@ -0,0 +1,81 @@
+package com.tutoring_calendar.controllers;
+
+import com.tutoring_calendar.dto.ImportJobStatus;
+import com.tutoring_calendar.enums.ImportFormat;
+import com.tutoring_calendar.services.imports.ImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Optional;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/imports")
+@CrossOrigin("*")
+@Slf4j
+public class ImportController {
+
+    private final ImportService importService;
+
+    public ImportController(ImportService importService) {
+        this.importService = importService;
+    }
+
+    /**
+     * Starts importing the lessons of an iCalendar or CSV file and answers 202 with the job to poll.
+     * The format is taken from {@code format} or else from the file name or content type.
+     */
+    @PostMapping("")
+    public ResponseEntity<ImportJobStatus> importSchedule(@RequestParam MultipartFile file,
+                                                          @RequestParam(required = false) ImportFormat format,
+                                                          @RequestParam(required = false) BigDecimal price) throws IOException {
+        log.info("Received request to import {} ({} bytes).", file.getOriginalFilename(), file.getSize());
+
+        Optional<ImportFormat> importFormat = Optional.ofNullable(format).or(() -> detectFormat(file));
+        if(file.isEmpty() || importFormat.isEmpty()){
+            return ResponseEntity.badRequest().build();
+        }
+
+        // The upload only lives as long as the request, the job reads its own copy
+        Path copy = Files.createTempFile("import-", "." + importFormat.get().name().toLowerCase(Locale.ROOT));
+        file.transferTo(copy);
+        ImportJobStatus job = importService.submit(file.getOriginalFilename(), copy, importFormat.get(), price);
+
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobStatus> getImport(@PathVariable String id) {
+        log.debug("Received request to get import {}.", id);
+
+        return importService.getStatus(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private static Optional<ImportFormat> detectFormat(MultipartFile file) {
+        String name = Optional.ofNullable(file.getOriginalFilename()).orElse("").toLowerCase(Locale.ROOT);
+        String contentType = Optional.ofNullable(file.getContentType()).orElse("").toLowerCase(Locale.ROOT);
+        if (name.endsWith(".ics") || contentType.startsWith("text/calendar")) {
+            return Optional.of(ImportFormat.ICS);
+        }
+        if (name.endsWith(".csv") || contentType.startsWith("text/csv")) {
+            return Optional.of(ImportFormat.CSV);
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,36 @@
+package com.tutoring_calendar.controllers;
+
+import com.tutoring_calendar.models.MonthlyIncome;
+import com.tutoring_calendar.services.IncomeLedgerService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/income")
+@CrossOrigin("*")
+@Slf4j
+public class IncomeController {
+
+    private final IncomeLedgerService incomeLedgerService;
+
+    public IncomeController(IncomeLedgerService incomeLedgerService) {
+        this.incomeLedgerService = incomeLedgerService;
+    }
+
+    @GetMapping("/monthly")
+    public ResponseEntity<List<MonthlyIncome>> getMonthlyIncome(@RequestParam YearMonth from, @RequestParam YearMonth to){
+        log.debug("Received request to get monthly income from {} to {}.", from, to);
+
+        List<MonthlyIncome> monthlyIncome = incomeLedgerService.getMonthlyIncome(from, to);
+        if(monthlyIncome.isEmpty()){
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(monthlyIncome);
+    }
+}
@@ -0,0 +1,21 @@
+package com.tutoring_calendar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A free stretch of a day, long enough for the requested lesson. Any start time within it that
+ * leaves room for the lesson can be booked.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvailableSlot {
+    private LocalDate date;
+    private LocalTime startTime;
+    private LocalTime finishTime;
+}
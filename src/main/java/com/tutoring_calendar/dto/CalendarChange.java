@@ -0,0 +1,31 @@
+package com.tutoring_calendar.dto;
+
+import com.tutoring_calendar.enums.ChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A change pushed to subscribers of the change feed. It names what changed, subscribers refetch the
+ * weeks of {@code dates}, which conditional requests keep cheap.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CalendarChange {
+    private ChangeType type;
+    private List<Long> eventIds;
+    private List<LocalDate> dates;
+    private List<Long> clientIds;
+
+    public static CalendarChange ofEvents(ChangeType type, List<Long> eventIds, List<LocalDate> dates, List<Long> clientIds) {
+        return new CalendarChange(type, eventIds, dates.stream().distinct().sorted().toList(), clientIds);
+    }
+
+    public static CalendarChange ofClient(ChangeType type, Long clientId) {
+        return new CalendarChange(type, List.of(), List.of(), List.of(clientId));
+    }
+}
@@ -3,14 +3,20 @@ package com.tutoring_calendar.dto;
 import com.tutoring_calendar.models.Client;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.util.List;
 
 @Data
 @AllArgsConstructor
+@NoArgsConstructor
 public class ClientResponse {
     private List<Client> clients;
+    // Totals over all active clients, not only the returned page
     private BigDecimal notPaid;
     private BigDecimal paidForward;
+    private int page;
+    private int size;
+    private boolean hasNext;
 }
@@ -0,0 +1,15 @@
+package com.tutoring_calendar.dto;
+
+import com.tutoring_calendar.enums.ClientStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClientView {
+    private Long id;
+    private String fullName;
+    private ClientStatus clientStatus;
+}
@@ -0,0 +1,15 @@
+package com.tutoring_calendar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DepositBalance {
+    private BigDecimal deposit;
+    private long version;
+}
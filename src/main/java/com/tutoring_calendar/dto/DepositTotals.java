@@ -0,0 +1,19 @@
+package com.tutoring_calendar.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+public class DepositTotals {
+    private BigDecimal notPaid = BigDecimal.ZERO;
+    private BigDecimal paidForward = BigDecimal.ZERO;
+
+    // Used by the JPQL constructor expression, SUM returns null when nothing matched
+    public DepositTotals(BigDecimal notPaid, BigDecimal paidForward) {
+        this.notPaid = notPaid == null ? BigDecimal.ZERO : notPaid;
+        this.paidForward = paidForward == null ? BigDecimal.ZERO : paidForward;
+    }
+}
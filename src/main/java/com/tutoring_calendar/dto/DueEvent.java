@@ -0,0 +1,16 @@
+package com.tutoring_calendar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class DueEvent {
+    private Long id;
+    private Long clientId;
+    private BigDecimal price;
+    private LocalDate date;
+}
@@ -0,0 +1,16 @@
+package com.tutoring_calendar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventBatchItemResult {
+    // Position of the event in the request array
+    private int index;
+    private Long id;
+    private boolean created;
+    private String error;
+}
@@ -0,0 +1,18 @@
+package com.tutoring_calendar.dto;
+
+import com.tutoring_calendar.enums.EventStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventFilter {
+    private LocalDate from;
+    private LocalDate to;
+    private Long clientId;
+    private EventStatus eventStatus;
+}
@@ -0,0 +1,19 @@
+package com.tutoring_calendar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventPage {
+    private List<EventView> events;
+    // Clients of the events on this page, keyed by ID
+    private Map<Long, ClientView> clients;
+    // Pass back as the token parameter to get the next page, null on the last page
+    private String nextToken;
+}
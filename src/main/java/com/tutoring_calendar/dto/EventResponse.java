@@ -1,18 +1,20 @@
 package com.tutoring_calendar.dto;
 
-import com.tutoring_calendar.models.Event;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class EventResponse {
-    private List<Event> events;
+    private List<EventView> events;
+    // Clients of the events, keyed by ID
+    private Map<Long, ClientView> clients;
     private BigDecimal currentWeekIncome;
     private BigDecimal expectedWeekIncome;
     private BigDecimal currentMonthIncome;
@@ -0,0 +1,24 @@
+package com.tutoring_calendar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * The time an event takes. Occurrences of a repeatable series that only exist virtually have no ID,
+ * their {@code originalId} is the series.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventSlot {
+    private Long id;
+    private Long originalId;
+    private LocalDate date;
+    private LocalTime startTime;
+    private LocalTime finishTime;
+    private boolean repeatable;
+}
@@ -0,0 +1,37 @@
+package com.tutoring_calendar.dto;
+
+import com.tutoring_calendar.enums.EventStatus;
+import com.tutoring_calendar.models.Event;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Read-side projection of an event. The client is referenced by ID, the responses carrying events
+ * list each of their clients once in a side map.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventView {
+    private Long id;
+    private Long clientId;
+    private BigDecimal price;
+    private LocalDate date;
+    private LocalTime startTime;
+    private LocalTime finishTime;
+    private boolean repeatable;
+    private EventStatus eventStatus;
+    private Long originalId;
+
+    public static EventView of(Event event) {
+        // Reading the ID does not initialize a lazy client
+        return new EventView(event.getId(), event.getClient().getId(), event.getPrice(), event.getDate(),
+                event.getStartTime(), event.getFinishTime(), event.isRepeatable(), event.getEventStatus(),
+                event.getOriginalId());
+    }
+}
@@ -0,0 +1,30 @@
+package com.tutoring_calendar.dto;
+
+import com.tutoring_calendar.enums.EventStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * An event as the calendar feed needs it, with the name of its client.
+ */
+@Data
+@AllArgsConstructor
+public class FeedEvent {
+    private Long id;
+    private Long originalId;
+    private String clientName;
+    private BigDecimal price;
+    private LocalDate date;
+    private LocalTime startTime;
+    private LocalTime finishTime;
+    private boolean repeatable;
+    private EventStatus eventStatus;
+
+    public boolean isSeries() {
+        return repeatable && id.equals(originalId);
+    }
+}
@@ -0,0 +1,32 @@
+package com.tutoring_calendar.dto;
+
+import com.tutoring_calendar.enums.ImportFormat;
+import com.tutoring_calendar.enums.ImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress of an import job. Only the first errors are listed, {@code eventsFailed} counts all of them.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportJobStatus {
+    private String id;
+    private String fileName;
+    private ImportFormat format;
+    private ImportStatus status;
+    private long bytesRead;
+    private long bytesTotal;
+    private long eventsCreated;
+    private long eventsFailed;
+    private List<ImportLineError> errors;
+    private boolean errorsTruncated;
+    private String failure;
+    private LocalDateTime submittedAt;
+    private LocalDateTime finishedAt;
+}
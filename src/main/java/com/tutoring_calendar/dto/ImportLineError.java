@@ -0,0 +1,16 @@
+package com.tutoring_calendar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A lesson of an import that was not created, with the line of the file it starts on.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportLineError {
+    private long line;
+    private String error;
+}
@@ -0,0 +1,28 @@
+package com.tutoring_calendar.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+public class IncomeSummary {
+    private BigDecimal currentWeekIncome = BigDecimal.ZERO;
+    private BigDecimal expectedWeekIncome = BigDecimal.ZERO;
+    private BigDecimal currentMonthIncome = BigDecimal.ZERO;
+    private BigDecimal expectedMonthIncome = BigDecimal.ZERO;
+
+    // Used by the JPQL constructor expression, SUM returns null when nothing matched
+    public IncomeSummary(BigDecimal currentWeekIncome, BigDecimal expectedWeekIncome,
+                         BigDecimal currentMonthIncome, BigDecimal expectedMonthIncome) {
+        this.currentWeekIncome = orZero(currentWeekIncome);
+        this.expectedWeekIncome = orZero(expectedWeekIncome);
+        this.currentMonthIncome = orZero(currentMonthIncome);
+        this.expectedMonthIncome = orZero(expectedMonthIncome);
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+}
@@ -0,0 +1,13 @@
+package com.tutoring_calendar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class SeriesOccurrence {
+    private Long seriesId;
+    private LocalDate date;
+}
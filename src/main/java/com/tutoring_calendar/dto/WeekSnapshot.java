@@ -0,0 +1,7 @@
+package com.tutoring_calendar.dto;
+
+/**
+ * A week view together with its JSON encoding and the ETag it was read under.
+ */
+public record WeekSnapshot(EventResponse response, byte[] json, String etag) {
+}
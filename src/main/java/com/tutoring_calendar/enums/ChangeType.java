@@ -0,0 +1,5 @@
+package com.tutoring_calendar.enums;
+
+public enum ChangeType {
+    EVENT_CREATED, EVENT_UPDATED, EVENTS_FINISHED, CLIENT_DEPOSIT_CHANGED, CLIENT_ARCHIVED
+}
@@ -0,0 +1,5 @@
+package com.tutoring_calendar.enums;
+
+public enum ImportStatus {
+    QUEUED, RUNNING, COMPLETED, FAILED
+}
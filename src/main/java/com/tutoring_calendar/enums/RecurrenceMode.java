@@ -0,0 +1,5 @@
+package com.tutoring_calendar.enums;
+
+public enum RecurrenceMode {
+    MATERIALIZED, VIRTUAL
+}
@@ -0,0 +1,5 @@
+package com.tutoring_calendar.enums;
+
+public enum SettlementStatus {
+    RUNNING, COMPLETED
+}
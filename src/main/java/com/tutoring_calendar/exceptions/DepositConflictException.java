@@ -0,0 +1,11 @@
+package com.tutoring_calendar.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class DepositConflictException extends RuntimeException{
+    public DepositConflictException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,24 @@
+package com.tutoring_calendar.exceptions;
+
+import com.tutoring_calendar.dto.EventSlot;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.List;
+
+@ResponseStatus(value = HttpStatus.CONFLICT)
+@Getter
+public class EventConflictException extends RuntimeException{
+
+    private final transient List<EventSlot> conflicts;
+
+    public EventConflictException(List<EventSlot> conflicts){
+        super(message(conflicts));
+        this.conflicts = conflicts;
+    }
+
+    public static String message(List<EventSlot> conflicts){
+        return "Event overlaps " + conflicts.size() + " other events";
+    }
+}
@@ -0,0 +1,11 @@
+package com.tutoring_calendar.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidPageTokenException extends RuntimeException{
+    public InvalidPageTokenException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,70 @@
+package com.tutoring_calendar.logging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which requests log at DEBUG: those of selected clients, selected request ids, and a random
+ * sample of the rest. Changed at runtime through the {@code debuglogging} actuator endpoint.
+ */
+@Component
+@Slf4j
+public class DebugLogSwitch {
+
+    private final Set<Long> clientIds = ConcurrentHashMap.newKeySet();
+    private final Set<String> requestIds = ConcurrentHashMap.newKeySet();
+    private volatile double sampleRate;
+
+    public DebugLogSwitch(@Value("${calendar.logging.debug-sample-rate:0}") double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public boolean shouldDebug(String requestId, Long clientId) {
+        if (clientId != null && clientIds.contains(clientId)) {
+            return true;
+        }
+        if (requestId != null && requestIds.contains(requestId)) {
+            return true;
+        }
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    public void enableForClient(Long clientId) {
+        clientIds.add(clientId);
+        log.info("Debug logging enabled for client ID {}.", clientId);
+    }
+
+    public void enableForRequest(String requestId) {
+        requestIds.add(requestId);
+        log.info("Debug logging enabled for request ID {}.", requestId);
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = Math.max(0, Math.min(1, sampleRate));
+        log.info("Debug logging sample rate set to {}.", this.sampleRate);
+    }
+
+    public void clear() {
+        clientIds.clear();
+        requestIds.clear();
+        sampleRate = 0;
+        log.info("Debug logging switched off.");
+    }
+
+    public Set<Long> getClientIds() {
+        return Set.copyOf(clientIds);
+    }
+
+    public Set<String> getRequestIds() {
+        return Set.copyOf(requestIds);
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+}
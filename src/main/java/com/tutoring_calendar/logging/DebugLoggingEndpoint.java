@@ -0,0 +1,51 @@
+package com.tutoring_calendar.logging;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/debuglogging}: GET shows the current selection, POST adds a client id, a request id
+ * or sets the sample rate (0..1), DELETE switches request debug logging off.
+ */
+@Component
+@Endpoint(id = "debuglogging")
+public class DebugLoggingEndpoint {
+
+    private final DebugLogSwitch debugLogSwitch;
+
+    public DebugLoggingEndpoint(DebugLogSwitch debugLogSwitch) {
+        this.debugLogSwitch = debugLogSwitch;
+    }
+
+    @ReadOperation
+    public Map<String, Object> selection() {
+        return Map.of("clientIds", debugLogSwitch.getClientIds(),
+                "requestIds", debugLogSwitch.getRequestIds(),
+                "sampleRate", debugLogSwitch.getSampleRate());
+    }
+
+    @WriteOperation
+    public Map<String, Object> enable(@Nullable Long clientId, @Nullable String requestId, @Nullable Double sampleRate) {
+        if (clientId != null) {
+            debugLogSwitch.enableForClient(clientId);
+        }
+        if (requestId != null) {
+            debugLogSwitch.enableForRequest(requestId);
+        }
+        if (sampleRate != null) {
+            debugLogSwitch.setSampleRate(sampleRate);
+        }
+        return selection();
+    }
+
+    @DeleteOperation
+    public void disable() {
+        debugLogSwitch.clear();
+    }
+}
@@ -0,0 +1,29 @@
+package com.tutoring_calendar.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Accepts DEBUG lines of the application's loggers on threads serving a request that
+ * {@link RequestLoggingFilter} marked for debugging. Every other line is left to the logger levels,
+ * so requests that are not marked pay one MDC lookup.
+ */
+public class RequestDebugTurboFilter extends TurboFilter {
+
+    private static final String APPLICATION_PACKAGE = "com.tutoring_calendar";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || !level.isGreaterOrEqual(Level.DEBUG) || level.isGreaterOrEqual(Level.INFO)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (!RequestLoggingFilter.DEBUG_ENABLED.equals(MDC.get(RequestLoggingFilter.DEBUG_MDC_KEY))) {
+            return FilterReply.NEUTRAL;
+        }
+        return logger.getName().startsWith(APPLICATION_PACKAGE) ? FilterReply.ACCEPT : FilterReply.NEUTRAL;
+    }
+}
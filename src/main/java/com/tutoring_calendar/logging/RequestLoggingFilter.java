@@ -0,0 +1,70 @@
+package com.tutoring_calendar.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Puts the request id (taken from {@code X-Request-Id} or generated) and the {@code clientId} parameter
+ * into the MDC, and marks the request for DEBUG logging when {@link DebugLogSwitch} picks it.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    static final String REQUEST_ID_MDC_KEY = "requestId";
+    static final String CLIENT_ID_MDC_KEY = "clientId";
+    static final String DEBUG_MDC_KEY = "debug";
+    static final String DEBUG_ENABLED = "true";
+
+    private final DebugLogSwitch debugLogSwitch;
+
+    public RequestLoggingFilter(DebugLogSwitch debugLogSwitch) {
+        this.debugLogSwitch = debugLogSwitch;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || requestId.isBlank()) {
+            requestId = UUID.randomUUID().toString();
+        }
+        Long clientId = parseClientId(request.getParameter("clientId"));
+
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        MDC.put(REQUEST_ID_MDC_KEY, requestId);
+        if (clientId != null) {
+            MDC.put(CLIENT_ID_MDC_KEY, clientId.toString());
+        }
+        if (debugLogSwitch.shouldDebug(requestId, clientId)) {
+            MDC.put(DEBUG_MDC_KEY, DEBUG_ENABLED);
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(REQUEST_ID_MDC_KEY);
+            MDC.remove(CLIENT_ID_MDC_KEY);
+            MDC.remove(DEBUG_MDC_KEY);
+        }
+    }
+
+    private Long parseClientId(String clientId) {
+        try {
+            return clientId == null ? null : Long.valueOf(clientId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
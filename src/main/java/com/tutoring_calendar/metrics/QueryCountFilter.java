@@ -0,0 +1,54 @@
+package com.tutoring_calendar.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request ran as {@code calendar.request.queries}, tagged with the
+ * matched URI pattern like {@code http.server.requests}.
+ */
+@Component
+@Slf4j
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private final QueryCountInspector queryCountInspector;
+    private final MeterRegistry meterRegistry;
+
+    public QueryCountFilter(QueryCountInspector queryCountInspector, MeterRegistry meterRegistry) {
+        this.queryCountInspector = queryCountInspector;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        queryCountInspector.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int queryCount = queryCountInspector.getCount();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+            DistributionSummary.builder("calendar.request.queries")
+                    .description("SQL statements run by Hibernate per request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(queryCount);
+
+            log.debug("{} {} ran {} queries.", request.getMethod(), uri, queryCount);
+        }
+    }
+}
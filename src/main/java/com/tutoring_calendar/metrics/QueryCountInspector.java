@@ -0,0 +1,61 @@
+package com.tutoring_calendar.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread. {@link QueryCountFilter}
+ * resets the count per request, so N+1 loads show up as a high per-request count.
+ * Plain JDBC reads, like the event stream, are not counted. The statements themselves are only kept
+ * while {@link #captureSql} runs.
+ */
+@Component
+public class QueryCountInspector implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final ThreadLocal<int[]> QUERY_COUNT = ThreadLocal.withInitial(() -> new int[1]);
+    private static final ThreadLocal<List<String>> CAPTURED_SQL = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        QUERY_COUNT.get()[0]++;
+        List<String> capturedSql = CAPTURED_SQL.get();
+        if (capturedSql != null) {
+            capturedSql.add(sql);
+        }
+        return sql;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    public void reset() {
+        QUERY_COUNT.get()[0] = 0;
+    }
+
+    public int getCount() {
+        return QUERY_COUNT.get()[0];
+    }
+
+    /**
+     * Runs {@code work} and returns the SQL Hibernate prepared for it on the current thread, as sent to
+     * the database with {@code ?} for every parameter.
+     */
+    public List<String> captureSql(Runnable work) {
+        List<String> capturedSql = new ArrayList<>();
+        CAPTURED_SQL.set(capturedSql);
+        try {
+            work.run();
+        } finally {
+            CAPTURED_SQL.remove();
+        }
+        return capturedSql;
+    }
+}
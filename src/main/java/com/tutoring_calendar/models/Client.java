@@ -1,24 +1,38 @@
 package com.tutoring_calendar.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.tutoring_calendar.enums.ClientStatus;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.TenantId;
 
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "clients")
-@AllArgsConstructor
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// Saving a changed status or name must not write back a deposit that was read before a concurrent debit
+@DynamicUpdate
 @NoArgsConstructor
 @Data
 public class Client {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clients_seq")
+    @SequenceGenerator(name = "clients_seq", sequenceName = "clients_seq", allocationSize = 50)
     private Long id;
 
+    // Set by Hibernate from the current tenant on insert, every query on the entity is restricted to it
+    @TenantId
+    @JsonIgnore
+    @Column(name = "tenant_id", nullable = false, updatable = false)
+    private String tenantId;
+
     @Column(name = "full_name")
     @NotNull(message = "Full name is mandatory")
     private String fullName;
@@ -28,4 +42,21 @@ public class Client {
 
     @Column(name = "status")
     private ClientStatus clientStatus;
+
+    // Primitive so that Spring Data still tells new clients apart by their id
+    @Version
+    @Column(name = "version")
+    private long version;
+
+    public Client(Long id, String fullName, BigDecimal deposit, ClientStatus clientStatus) {
+        this.id = id;
+        this.fullName = fullName;
+        this.deposit = deposit;
+        this.clientStatus = clientStatus;
+    }
+
+    public Client(Long id, String fullName, BigDecimal deposit, ClientStatus clientStatus, long version) {
+        this(id, fullName, deposit, clientStatus);
+        this.version = version;
+    }
 }
@@ -0,0 +1,47 @@
+package com.tutoring_calendar.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "income_daily")
+@IdClass(DailyIncome.Key.class)
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class DailyIncome {
+    // Part of the key rather than a @TenantId, the rollup repositories name the tenant in every query themselves
+    @Id
+    @JsonIgnore
+    @Column(name = "tenant_id")
+    private String tenantId;
+
+    @Id
+    @Column(name = "income_date")
+    private LocalDate date;
+
+    @Column(name = "expected_income", nullable = false)
+    private BigDecimal expectedIncome;
+
+    @Column(name = "realized_income", nullable = false)
+    private BigDecimal realizedIncome;
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Data
+    public static class Key implements Serializable {
+        private String tenantId;
+        private LocalDate date;
+    }
+}
@@ -0,0 +1,54 @@
+package com.tutoring_calendar.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.tutoring_calendar.enums.DepositTransactionType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.TenantId;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One change of a client's deposit. Rows are only ever inserted, the balance itself is kept up to date
+ * in {@link Client#getDeposit()} by the same transaction.
+ */
+@Entity
+@Table(name = "deposit_transactions")
+@NoArgsConstructor
+@Data
+public class DepositTransaction {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "deposit_transactions_seq")
+    @SequenceGenerator(name = "deposit_transactions_seq", sequenceName = "deposit_transactions_seq", allocationSize = 50)
+    private Long id;
+
+    // Set by Hibernate from the current tenant on insert, every query on the entity is restricted to it
+    @TenantId
+    @JsonIgnore
+    @Column(name = "tenant_id", nullable = false, updatable = false)
+    private String tenantId;
+
+    // Plain id, appending must not load the client
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    // Positive when the client paid, negative when a lesson was charged
+    @Column(name = "amount", nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "type", nullable = false)
+    private DepositTransactionType type;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public DepositTransaction(Long id, Long clientId, BigDecimal amount, DepositTransactionType type, LocalDateTime createdAt) {
+        this.id = id;
+        this.clientId = clientId;
+        this.amount = amount;
+        this.type = type;
+        this.createdAt = createdAt;
+    }
+}
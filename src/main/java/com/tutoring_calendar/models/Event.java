@@ -1,11 +1,12 @@
 package com.tutoring_calendar.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.tutoring_calendar.enums.EventStatus;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.TenantId;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -13,15 +14,21 @@ import java.time.LocalTime;
 
 @Entity
 @Table(name = "events")
-@AllArgsConstructor
 @NoArgsConstructor
 @Data
 public class Event {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "events_seq")
+    @SequenceGenerator(name = "events_seq", sequenceName = "events_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne()
+    // Set by Hibernate from the current tenant on insert, every query on the entity is restricted to it
+    @TenantId
+    @JsonIgnore
+    @Column(name = "tenant_id", nullable = false, updatable = false)
+    private String tenantId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "client_id", nullable = false)
     @NotNull(message = "Client is mandatory")
     private Client client;
@@ -48,12 +55,27 @@ public class Event {
     @Column(name = "status")
     private EventStatus eventStatus;
 
-    @Column(name = "original_id")
+    // Mapped through the getter, see getOriginalId()
+    @Transient
     private Long originalId;
 
+    public Event(Long id, Client client, BigDecimal price, LocalDate date, LocalTime startTime, LocalTime finishTime,
+                 boolean repeatable, EventStatus eventStatus, Long originalId) {
+        this.id = id;
+        this.client = client;
+        this.price = price;
+        this.date = date;
+        this.startTime = startTime;
+        this.finishTime = finishTime;
+        this.repeatable = repeatable;
+        this.eventStatus = eventStatus;
+        this.originalId = originalId;
+    }
+
     //Copy constructor
     public Event(Event otherEvent) {
         this.id = otherEvent.id;
+        this.tenantId = otherEvent.tenantId;
         this.client = otherEvent.client;
         this.price = otherEvent.price;
         this.date = otherEvent.date;
@@ -61,6 +83,17 @@ public class Event {
         this.finishTime = otherEvent.finishTime;
         this.repeatable = otherEvent.repeatable;
         this.eventStatus = otherEvent.eventStatus;
+        this.originalId = otherEvent.originalId;
+    }
+
+    /**
+     * A series' first event is its own original. Without an explicit original the event's own ID is
+     * returned, which is already known when the insert is built, so the column needs no follow-up update.
+     */
+    @Access(AccessType.PROPERTY)
+    @Column(name = "original_id")
+    public Long getOriginalId() {
+        return originalId != null ? originalId : id;
     }
 
 }
@@ -0,0 +1,33 @@
+package com.tutoring_calendar.models;
+
+import com.tutoring_calendar.enums.SettlementStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "settlement_checkpoints")
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class SettlementCheckpoint {
+    @Id
+    @Column(name = "job_name")
+    private String jobName;
+
+    // Events that finished before this moment are settled by the run
+    @Column(name = "cutoff", nullable = false)
+    private LocalDateTime cutoff;
+
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId;
+
+    @Column(name = "status", nullable = false)
+    private SettlementStatus status;
+}
@@ -0,0 +1,117 @@
+package com.tutoring_calendar.reactive;
+
+import com.tutoring_calendar.dto.ClientResponse;
+import com.tutoring_calendar.enums.ClientStatus;
+import com.tutoring_calendar.exceptions.DepositConflictException;
+import com.tutoring_calendar.models.Client;
+import com.tutoring_calendar.services.ClientService;
+import com.tutoring_calendar.tenancy.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * WebFlux handlers of the client endpoints, the same contract as
+ * {@link com.tutoring_calendar.controllers.ClientController}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class ClientHandler {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final ReactiveClientRepository clientRepository;
+    private final ClientService clientService;
+
+    public ClientHandler(ReactiveClientRepository clientRepository, ClientService clientService) {
+        this.clientRepository = clientRepository;
+        this.clientService = clientService;
+    }
+
+    public Mono<ServerResponse> getAllClients(ServerRequest request) {
+        int page = request.queryParam("page").map(Integer::parseInt).orElse(0);
+        int size = Math.max(1, Math.min(request.queryParam("size").map(Integer::parseInt).orElse(50), MAX_PAGE_SIZE));
+        String sort = request.queryParam("sort").orElse("fullName");
+        Sort.Direction direction = request.queryParam("direction").map(Sort.Direction::fromString).orElse(Sort.Direction.ASC);
+        String tenantId = ReactiveConfig.tenantOf(request);
+        log.info("Received request to get clients, page {} of size {} sorted by {} {}.", page, size, sort, direction);
+
+        if (page < 0 || !ReactiveClientRepository.isSortable(sort)) {
+            return ServerResponse.badRequest().build();
+        }
+
+        // The page and the totals over all active clients are read concurrently
+        return Mono.zip(
+                        clientRepository.findAllByClientStatus(tenantId, ClientStatus.ACTIVE, sort, direction,
+                                page * size, size + 1).collectList(),
+                        clientRepository.sumDepositsByStatus(tenantId, ClientStatus.ACTIVE))
+                .flatMap(result -> {
+                    List<Client> clients = result.getT1();
+                    if (clients.isEmpty()) {
+                        log.info("No clients found.");
+                        return ServerResponse.noContent().build();
+                    }
+
+                    boolean hasNext = clients.size() > size;
+                    List<Client> content = hasNext ? clients.subList(0, size) : clients;
+                    ClientResponse clientResponse = new ClientResponse(content, result.getT2().getNotPaid(),
+                            result.getT2().getPaidForward(), page, size, hasNext);
+
+                    log.info("Returning {} clients.", content.size());
+                    return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(clientResponse);
+                });
+    }
+
+    public Mono<ServerResponse> changeClientDeposit(ServerRequest request) {
+        Long clientId = Long.valueOf(requiredParam(request, "clientId"));
+        BigDecimal newDepositAmount = new BigDecimal(requiredParam(request, "newDepositAmount"));
+        Long expectedVersion = request.queryParam("expectedVersion").map(Long::valueOf).orElse(null);
+        log.info("Received request to change deposit for client with ID {}. New deposit amount: {}", clientId, newDepositAmount);
+
+        return noContentOrNotFound(request, () -> clientService.updateDeposit(clientId, newDepositAmount, expectedVersion));
+    }
+
+    public Mono<ServerResponse> adjustClientDeposit(ServerRequest request) {
+        Long clientId = Long.valueOf(requiredParam(request, "clientId"));
+        BigDecimal amount = new BigDecimal(requiredParam(request, "amount"));
+        log.info("Received request to adjust deposit for client with ID {} by {}.", clientId, amount);
+
+        return noContentOrNotFound(request, () -> clientService.adjustDeposit(clientId, amount));
+    }
+
+    public Mono<ServerResponse> archiveClient(ServerRequest request) {
+        Long clientId = Long.valueOf(requiredParam(request, "clientId"));
+        log.info("Received request to archive client with ID {}.", clientId);
+
+        return noContentOrNotFound(request, () -> clientService.archiveClient(clientId));
+    }
+
+    private static String requiredParam(ServerRequest request, String name) {
+        return request.queryParam(name)
+                .orElseThrow(() -> new ServerWebInputException("Required parameter '" + name + "' is not present."));
+    }
+
+    private static Mono<ServerResponse> noContentOrNotFound(ServerRequest request, BooleanSupplier update) {
+        String tenantId = ReactiveConfig.tenantOf(request);
+        return Mono.fromCallable(() -> TenantContext.callAs(tenantId, update::getAsBoolean))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(updated -> updated
+                        ? ServerResponse.noContent().build()
+                        : ServerResponse.notFound().build())
+                .onErrorResume(DepositConflictException.class,
+                        ex -> ServerResponse.status(HttpStatus.CONFLICT).bodyValue(ex.getMessage()));
+    }
+}
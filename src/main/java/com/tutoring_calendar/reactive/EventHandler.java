@@ -0,0 +1,170 @@
+package com.tutoring_calendar.reactive;
+
+import com.tutoring_calendar.dto.EventFilter;
+import com.tutoring_calendar.dto.EventResponse;
+import com.tutoring_calendar.dto.EventUpdateDTO;
+import com.tutoring_calendar.dto.EventView;
+import com.tutoring_calendar.dto.IncomeSummary;
+import com.tutoring_calendar.enums.EventStatus;
+import com.tutoring_calendar.exceptions.EventConflictException;
+import com.tutoring_calendar.exceptions.EventNotFoundException;
+import com.tutoring_calendar.models.Event;
+import com.tutoring_calendar.services.EventService;
+import com.tutoring_calendar.services.RecurrenceService;
+import com.tutoring_calendar.tenancy.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * WebFlux handlers of the event endpoints, the same contract as
+ * {@link com.tutoring_calendar.controllers.EventController}. Writes still go through {@link EventService}
+ * on the bounded elastic scheduler, they keep the ledger and the week view cache up to date.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class EventHandler {
+
+    private final ReactiveEventRepository eventRepository;
+    private final ReactiveClientRepository clientRepository;
+    private final ReactiveIncomeRepository incomeRepository;
+    private final EventService eventService;
+    private final RecurrenceService recurrenceService;
+
+    public EventHandler(ReactiveEventRepository eventRepository, ReactiveClientRepository clientRepository,
+                        ReactiveIncomeRepository incomeRepository, EventService eventService,
+                        RecurrenceService recurrenceService) {
+        this.eventRepository = eventRepository;
+        this.clientRepository = clientRepository;
+        this.incomeRepository = incomeRepository;
+        this.eventService = eventService;
+        this.recurrenceService = recurrenceService;
+    }
+
+    /**
+     * Streams the events as newline delimited JSON. Rows are pulled from the database only as fast as
+     * the client reads them. Events carry only the ID of their client, the clients are listed by {@code /clients}.
+     */
+    public Mono<ServerResponse> getAllEvents(ServerRequest request) {
+        EventFilter filter = new EventFilter(
+                request.queryParam("from").map(LocalDate::parse).orElse(null),
+                request.queryParam("to").map(LocalDate::parse).orElse(null),
+                request.queryParam("clientId").map(Long::valueOf).orElse(null),
+                request.queryParam("status").map(EventStatus::valueOf).orElse(null));
+        String tenantId = ReactiveConfig.tenantOf(request);
+
+        return eventRepository.existsAny(tenantId, filter)
+                .flatMap(exists -> exists
+                        ? ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON)
+                                .body(eventRepository.findAll(tenantId, filter), EventView.class)
+                        : ServerResponse.noContent().build());
+    }
+
+    public Mono<ServerResponse> getEventsByWeek(ServerRequest request) {
+        LocalDate dateOfWeek = LocalDate.parse(request.pathVariable("date"));
+        String tenantId = ReactiveConfig.tenantOf(request);
+        log.debug("Received request to get events for week with date: {}", dateOfWeek);
+
+        // Same ETags as the MVC variant, taken before reading so the body is at least as new
+        String etag = TenantContext.callAs(tenantId, () -> eventService.getWeekEtag(dateOfWeek));
+        if (request.headers().header(HttpHeaders.IF_NONE_MATCH).contains(etag)) {
+            return ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        LocalDate firstDayOfWeek = dateOfWeek.with(DayOfWeek.MONDAY);
+        LocalDate lastDayOfWeek = dateOfWeek.with(DayOfWeek.SUNDAY);
+        LocalDate firstDayOfMonth = dateOfWeek.withDayOfMonth(1);
+        LocalDate lastDayOfMonth = YearMonth.from(dateOfWeek).atEndOfMonth();
+
+        // Materializing the week writes through JPA, it has to happen before the reads below
+        Mono<Void> prepareWeek = Mono.<Void>fromRunnable(() -> TenantContext.runAs(tenantId,
+                        () -> recurrenceService.prepareWeek(firstDayOfWeek, lastDayOfWeek)))
+                .subscribeOn(Schedulers.boundedElastic());
+
+        Mono<List<Event>> virtualOccurrences = Mono.fromCallable(() -> TenantContext.callAs(tenantId,
+                        () -> recurrenceService.findVirtualOccurrencesBetween(
+                                firstDayOfWeek.isBefore(firstDayOfMonth) ? firstDayOfWeek : firstDayOfMonth,
+                                lastDayOfWeek.isAfter(lastDayOfMonth) ? lastDayOfWeek : lastDayOfMonth)))
+                .subscribeOn(Schedulers.boundedElastic());
+        Mono<List<EventView>> events = eventRepository.findAllByDateRange(tenantId, firstDayOfWeek, lastDayOfWeek).collectList();
+        Mono<IncomeSummary> income = incomeRepository.summarizeIncome(tenantId, firstDayOfWeek, lastDayOfWeek,
+                firstDayOfMonth, lastDayOfMonth, LocalDate.now());
+
+        return prepareWeek
+                .then(Mono.zip(events, income, virtualOccurrences))
+                .flatMap(week -> {
+                    List<EventView> weekEvents = new ArrayList<>(week.getT1());
+                    week.getT3().stream()
+                            .filter(occurrence -> !occurrence.getDate().isBefore(firstDayOfWeek)
+                                    && !occurrence.getDate().isAfter(lastDayOfWeek))
+                            .map(EventView::of)
+                            .forEach(weekEvents::add);
+
+                    IncomeSummary summary = eventService.addVirtualIncome(week.getT2(), dateOfWeek,
+                            firstDayOfWeek, lastDayOfWeek, week.getT3());
+                    return clientRepository.findViewsByIds(tenantId, weekEvents.stream().map(EventView::getClientId).toList())
+                            .map(clients -> new EventResponse(weekEvents, clients, summary.getCurrentWeekIncome(),
+                                    summary.getExpectedWeekIncome(), summary.getCurrentMonthIncome(),
+                                    summary.getExpectedMonthIncome()));
+                })
+                .flatMap(response -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                        .cacheControl(CacheControl.noCache())
+                        .eTag(etag)
+                        .bodyValue(response));
+    }
+
+    public Mono<ServerResponse> updateEvent(ServerRequest request) {
+        return request.bodyToMono(EventUpdateDTO.class)
+                .doOnNext(newEvent -> log.info("Received request to update event. Date details: {}", newEvent))
+                .flatMap(newEvent -> blocking(request, () -> eventService.updateEventData(newEvent)))
+                .flatMap(updated -> updated
+                        .map(event -> ServerResponse.created(locationOf(request, event.getId())).build())
+                        .orElseGet(() -> ServerResponse.notFound().build()))
+                .onErrorResume(EventNotFoundException.class,
+                        ex -> ServerResponse.status(500).bodyValue(ex.getMessage()))
+                .onErrorResume(EventConflictException.class,
+                        ex -> ServerResponse.status(HttpStatus.CONFLICT).bodyValue(ex.getConflicts()));
+    }
+
+    public Mono<ServerResponse> createNewEvent(ServerRequest request) {
+        return request.bodyToMono(Event.class)
+                .doOnNext(newEvent -> log.info("Received request to create a new event. Date details: {}", newEvent))
+                .flatMap(newEvent -> blocking(request, () -> eventService.addEvent(newEvent)))
+                .flatMap(created -> created
+                        .map(event -> ServerResponse.created(locationOf(request, event.getId())).build())
+                        .orElseGet(() -> ServerResponse.noContent().build()))
+                .onErrorResume(EventConflictException.class,
+                        ex -> ServerResponse.status(HttpStatus.CONFLICT).bodyValue(ex.getConflicts()));
+    }
+
+    private static Mono<Optional<Event>> blocking(ServerRequest request, Supplier<Optional<Event>> call) {
+        String tenantId = ReactiveConfig.tenantOf(request);
+        return Mono.fromCallable(() -> TenantContext.callAs(tenantId, call)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static URI locationOf(ServerRequest request, Long id) {
+        return UriComponentsBuilder.fromUri(request.uri())
+                .path("/{id}")
+                .buildAndExpand(id)
+                .toUri();
+    }
+}
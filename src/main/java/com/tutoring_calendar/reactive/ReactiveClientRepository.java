@@ -0,0 +1,90 @@
+package com.tutoring_calendar.reactive;
+
+import com.tutoring_calendar.dto.ClientView;
+import com.tutoring_calendar.dto.DepositTotals;
+import com.tutoring_calendar.enums.ClientStatus;
+import com.tutoring_calendar.models.Client;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * R2DBC counterpart of the read queries of {@link com.tutoring_calendar.repositories.ClientRepository}.
+ * Every query is restricted to the given tenant.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveClientRepository {
+
+    // Property names accepted by the listing mapped to their columns, nothing else reaches the SQL
+    private static final Map<String, String> SORT_COLUMNS = Map.of("fullName", "full_name", "deposit", "deposit", "id", "id");
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveClientRepository(DatabaseClient reactiveDatabaseClient) {
+        this.databaseClient = reactiveDatabaseClient;
+    }
+
+    public static boolean isSortable(String property) {
+        return SORT_COLUMNS.containsKey(property);
+    }
+
+    /**
+     * Reads one page of clients with the given status. Like a {@code Slice} one extra row is requested,
+     * its presence tells whether a next page exists.
+     */
+    public Flux<Client> findAllByClientStatus(String tenantId, ClientStatus status, String sort, Sort.Direction direction,
+                                              int offset, int limit) {
+        // The id keeps the order stable between pages when the sort field has equal values
+        String sql = "SELECT id, full_name, deposit, status, version FROM clients WHERE tenant_id = :tenantId AND status = :status " +
+                "ORDER BY " + SORT_COLUMNS.get(sort) + " " + direction.name() + ", id " +
+                "LIMIT :limit OFFSET :offset";
+
+        return databaseClient.sql(sql)
+                .bind("tenantId", tenantId)
+                .bind("status", status.ordinal())
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(row -> new Client(row.get("id", Long.class), row.get("full_name", String.class),
+                        row.get("deposit", BigDecimal.class), ReactiveEventRepository.toEnum(ClientStatus.values(), row, "status"),
+                        row.get("version", Long.class)))
+                .all();
+    }
+
+    /**
+     * Looks up the clients with the given IDs for the side map of a week view.
+     */
+    public Mono<Map<Long, ClientView>> findViewsByIds(String tenantId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Mono.just(new TreeMap<>());
+        }
+        // The collection is expanded into one bind marker per ID
+        return databaseClient.sql("SELECT id, full_name, status FROM clients WHERE tenant_id = :tenantId AND id IN (:ids)")
+                .bind("tenantId", tenantId)
+                .bind("ids", Set.copyOf(ids))
+                .map(row -> new ClientView(row.get("id", Long.class), row.get("full_name", String.class),
+                        ReactiveEventRepository.toEnum(ClientStatus.values(), row, "status")))
+                .all()
+                .collectMap(ClientView::getId, client -> client, TreeMap::new);
+    }
+
+    public Mono<DepositTotals> sumDepositsByStatus(String tenantId, ClientStatus status) {
+        return databaseClient.sql("SELECT SUM(CASE WHEN deposit < 0 THEN deposit END) AS not_paid, " +
+                        "SUM(CASE WHEN deposit > 0 THEN deposit END) AS paid_forward FROM clients " +
+                        "WHERE tenant_id = :tenantId AND status = :status")
+                .bind("tenantId", tenantId)
+                .bind("status", status.ordinal())
+                .map(row -> new DepositTotals(row.get("not_paid", BigDecimal.class), row.get("paid_forward", BigDecimal.class)))
+                .one()
+                .defaultIfEmpty(new DepositTotals(null, null));
+    }
+}
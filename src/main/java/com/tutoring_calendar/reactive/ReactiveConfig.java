@@ -0,0 +1,91 @@
+package com.tutoring_calendar.reactive;
+
+import com.tutoring_calendar.tenancy.TenantContext;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Wiring of the WebFlux variant of the API, active with the "reactive" profile. Reads go through R2DBC,
+ * writes are handed to the blocking services. The R2DBC auto-configuration stays excluded so that its
+ * transaction manager does not replace the JPA one, the connection factory is built here instead.
+ * A request runs as the tenant of its {@code X-Tenant-Id} header, queries are given the tenant and calls
+ * into the blocking services run inside {@link TenantContext#callAs}, a thread-local does not follow
+ * a request from thread to thread here.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool reactiveConnectionFactory(@Value("${calendar.reactive.r2dbc.url}") String url,
+                                                    @Value("${calendar.reactive.r2dbc.username}") String username,
+                                                    @Value("${calendar.reactive.r2dbc.password}") String password,
+                                                    @Value("${calendar.reactive.r2dbc.pool-size:20}") int poolSize) {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .maxSize(poolSize)
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(ConnectionPool reactiveConnectionFactory) {
+        return DatabaseClient.create(reactiveConnectionFactory);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> reactiveRoutes(EventHandler eventHandler, ClientHandler clientHandler) {
+        return route()
+                .GET("/events", eventHandler::getAllEvents)
+                .GET("/events/{date}", eventHandler::getEventsByWeek)
+                .POST("/events/update", eventHandler::updateEvent)
+                .POST("/events/create-event", eventHandler::createNewEvent)
+                .GET("/clients", clientHandler::getAllClients)
+                .PUT("/clients/change-deposit", clientHandler::changeClientDeposit)
+                .PUT("/clients/adjust-deposit", clientHandler::adjustClientDeposit)
+                .PUT("/clients/archive", clientHandler::archiveClient)
+                .filter((request, next) -> tenantOf(request) == null
+                        ? ServerResponse.badRequest().build()
+                        : next.handle(request))
+                .build();
+    }
+
+    /**
+     * @return the tenant of the request, {@code null} only for an invalid header, which the routes reject
+     */
+    static String tenantOf(ServerRequest request) {
+        return TenantContext.fromHeader(request.headers().firstHeader(TenantContext.TENANT_HEADER));
+    }
+
+    // Same as @CrossOrigin("*") on the MVC controllers
+    @Bean
+    public CorsWebFilter corsWebFilter() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.addAllowedOrigin("*");
+        configuration.addAllowedMethod("*");
+        configuration.addAllowedHeader("*");
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return new CorsWebFilter(source);
+    }
+}
@@ -0,0 +1,102 @@
+package com.tutoring_calendar.reactive;
+
+import com.tutoring_calendar.dto.EventFilter;
+import com.tutoring_calendar.dto.EventView;
+import com.tutoring_calendar.enums.EventStatus;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * R2DBC counterpart of the read queries of {@link com.tutoring_calendar.repositories.EventRepository}.
+ * Rows are mapped to the same projections the JPA queries return, so both API variants serialize the same JSON.
+ * Every query is restricted to the given tenant.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEventRepository {
+
+    private static final String SELECT_EVENTS_SQL =
+            "SELECT e.id, e.client_id, e.price, e.date, e.start_time, e.finish_time, e.repeatable, e.status, " +
+            "COALESCE(e.original_id, e.id) AS original_id FROM events e WHERE e.tenant_id = :tenantId";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveEventRepository(DatabaseClient reactiveDatabaseClient) {
+        this.databaseClient = reactiveDatabaseClient;
+    }
+
+    public Flux<EventView> findAll(String tenantId, EventFilter filter) {
+        Map<String, Object> args = new LinkedHashMap<>();
+        args.put("tenantId", tenantId);
+        String sql = SELECT_EVENTS_SQL + where(filter, args);
+
+        return bind(databaseClient.sql(sql), args)
+                .map(ReactiveEventRepository::mapEvent)
+                .all();
+    }
+
+    public Mono<Boolean> existsAny(String tenantId, EventFilter filter) {
+        Map<String, Object> args = new LinkedHashMap<>();
+        args.put("tenantId", tenantId);
+        String sql = "SELECT e.id FROM events e WHERE e.tenant_id = :tenantId" + where(filter, args) + " LIMIT 1";
+
+        return bind(databaseClient.sql(sql), args)
+                .map(row -> row.get("id", Long.class))
+                .first()
+                .hasElement();
+    }
+
+    public Flux<EventView> findAllByDateRange(String tenantId, LocalDate firstDay, LocalDate lastDay) {
+        return findAll(tenantId, new EventFilter(firstDay, lastDay, null, null));
+    }
+
+    private static String where(EventFilter filter, Map<String, Object> args) {
+        StringBuilder sql = new StringBuilder();
+        if (filter.getFrom() != null) {
+            sql.append(" AND e.date >= :from");
+            args.put("from", filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            sql.append(" AND e.date <= :to");
+            args.put("to", filter.getTo());
+        }
+        if (filter.getClientId() != null) {
+            sql.append(" AND e.client_id = :clientId");
+            args.put("clientId", filter.getClientId());
+        }
+        if (filter.getEventStatus() != null) {
+            sql.append(" AND e.status = :status");
+            args.put("status", filter.getEventStatus().ordinal());
+        }
+        return sql.toString();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, Map<String, Object> args) {
+        for (Map.Entry<String, Object> arg : args.entrySet()) {
+            spec = spec.bind(arg.getKey(), arg.getValue());
+        }
+        return spec;
+    }
+
+    private static EventView mapEvent(Readable row) {
+        return new EventView(row.get("id", Long.class), row.get("client_id", Long.class), row.get("price", BigDecimal.class),
+                row.get("date", LocalDate.class), row.get("start_time", LocalTime.class),
+                row.get("finish_time", LocalTime.class), Boolean.TRUE.equals(row.get("repeatable", Boolean.class)),
+                toEnum(EventStatus.values(), row, "status"), row.get("original_id", Long.class));
+    }
+
+    static <E extends Enum<E>> E toEnum(E[] values, Readable row, String column) {
+        Integer ordinal = row.get(column, Integer.class);
+        return ordinal == null ? null : values[ordinal];
+    }
+}
@@ -0,0 +1,51 @@
+package com.tutoring_calendar.reactive;
+
+import com.tutoring_calendar.dto.IncomeSummary;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * R2DBC counterpart of {@link com.tutoring_calendar.repositories.DailyIncomeRepository#summarizeIncome}.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveIncomeRepository {
+
+    private static final String SUMMARIZE_INCOME_SQL = "SELECT " +
+            "SUM(CASE WHEN income_date BETWEEN :firstDayOfWeek AND :lastDayOfWeek AND income_date < :today THEN expected_income END) AS current_week, " +
+            "SUM(CASE WHEN income_date BETWEEN :firstDayOfWeek AND :lastDayOfWeek THEN expected_income END) AS expected_week, " +
+            "SUM(CASE WHEN income_date BETWEEN :firstDayOfMonth AND :lastDayOfMonth AND income_date < :today THEN expected_income END) AS current_month, " +
+            "SUM(CASE WHEN income_date BETWEEN :firstDayOfMonth AND :lastDayOfMonth THEN expected_income END) AS expected_month " +
+            "FROM income_daily WHERE tenant_id = :tenantId AND income_date BETWEEN :firstDay AND :lastDay";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveIncomeRepository(DatabaseClient reactiveDatabaseClient) {
+        this.databaseClient = reactiveDatabaseClient;
+    }
+
+    public Mono<IncomeSummary> summarizeIncome(String tenantId, LocalDate firstDayOfWeek, LocalDate lastDayOfWeek,
+                                               LocalDate firstDayOfMonth, LocalDate lastDayOfMonth, LocalDate today) {
+        LocalDate firstDay = firstDayOfWeek.isBefore(firstDayOfMonth) ? firstDayOfWeek : firstDayOfMonth;
+        LocalDate lastDay = lastDayOfWeek.isAfter(lastDayOfMonth) ? lastDayOfWeek : lastDayOfMonth;
+
+        return databaseClient.sql(SUMMARIZE_INCOME_SQL)
+                .bind("tenantId", tenantId)
+                .bind("firstDayOfWeek", firstDayOfWeek)
+                .bind("lastDayOfWeek", lastDayOfWeek)
+                .bind("firstDayOfMonth", firstDayOfMonth)
+                .bind("lastDayOfMonth", lastDayOfMonth)
+                .bind("firstDay", firstDay)
+                .bind("lastDay", lastDay)
+                .bind("today", today)
+                .map(row -> new IncomeSummary(row.get("current_week", BigDecimal.class), row.get("expected_week", BigDecimal.class),
+                        row.get("current_month", BigDecimal.class), row.get("expected_month", BigDecimal.class)))
+                .one()
+                .defaultIfEmpty(new IncomeSummary());
+    }
+}
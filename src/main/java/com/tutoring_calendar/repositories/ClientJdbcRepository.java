@@ -0,0 +1,19 @@
+package com.tutoring_calendar.repositories;
+
+import java.math.BigDecimal;
+
+public interface ClientJdbcRepository {
+
+    /**
+     * Adds {@code amount} to the deposit in the database, whatever balance other transactions left there.
+     * The tenant is named explicitly, a client ID of another tenant must never be charged.
+     *
+     * @return the number of clients changed, 0 or 1
+     */
+    int addToDeposit(String tenantId, Long clientId, BigDecimal amount);
+
+    /**
+     * Same as {@link #addToDeposit} but only while the client is still at {@code version}.
+     */
+    int addToDepositAtVersion(String tenantId, Long clientId, BigDecimal amount, long version);
+}
@@ -0,0 +1,56 @@
+package com.tutoring_calendar.repositories;
+
+import com.tutoring_calendar.models.Client;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+
+// Plain SQL rather than JPQL bulk updates: Hibernate answers a bulk update of Client by dropping the whole
+// second-level cache region of clients, here only the changed client is evicted
+public class ClientJdbcRepositoryImpl implements ClientJdbcRepository {
+
+    private static final String ADD_TO_DEPOSIT_SQL =
+            "UPDATE clients SET deposit = COALESCE(deposit, 0) + ?, version = version + 1 WHERE id = ? AND tenant_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public ClientJdbcRepositoryImpl(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public int addToDeposit(String tenantId, Long clientId, BigDecimal amount) {
+        return evictIfUpdated(clientId, jdbcTemplate.update(ADD_TO_DEPOSIT_SQL, amount, clientId, tenantId));
+    }
+
+    @Override
+    public int addToDepositAtVersion(String tenantId, Long clientId, BigDecimal amount, long version) {
+        return evictIfUpdated(clientId, jdbcTemplate.update(ADD_TO_DEPOSIT_SQL + " AND version = ?",
+                amount, clientId, tenantId, version));
+    }
+
+    // Evicted again once the transaction is over, a read in between may have cached the old deposit
+    private int evictIfUpdated(Long clientId, int updated) {
+        if (updated == 0) {
+            return updated;
+        }
+
+        Cache cache = entityManagerFactory.getCache();
+        cache.evict(Client.class, clientId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(Client.class, clientId);
+                }
+            });
+        }
+        return updated;
+    }
+}
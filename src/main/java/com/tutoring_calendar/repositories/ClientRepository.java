@@ -1,13 +1,50 @@
 package com.tutoring_calendar.repositories;
 
+import com.tutoring_calendar.dto.ClientView;
+import com.tutoring_calendar.dto.DepositBalance;
+import com.tutoring_calendar.dto.DepositTotals;
+import com.tutoring_calendar.enums.ClientStatus;
 import com.tutoring_calendar.models.Client;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ClientRepository extends JpaRepository<Client, Long> {
+public interface ClientRepository extends JpaRepository<Client, Long>, ClientJdbcRepository {
 
     Optional<Client> findByFullName(String fullName);
+
+    /**
+     * Like {@code findById} but restricted to the current tenant. Queries carry the tenant restriction,
+     * loads by key do not, they may be served from the persistence context or the second-level cache.
+     */
+    @Query("SELECT c FROM Client c WHERE c.id = :id")
+    Optional<Client> findInTenant(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Slice<Client> findAllByClientStatus(ClientStatus clientStatus, Pageable pageable);
+
+    // Not cached, deposits change through plain SQL that does not invalidate the query cache
+    @Query("SELECT new com.tutoring_calendar.dto.DepositTotals(SUM(CASE WHEN c.deposit < 0 THEN c.deposit END), " +
+            "SUM(CASE WHEN c.deposit > 0 THEN c.deposit END)) FROM Client c WHERE c.clientStatus = :status")
+    DepositTotals sumDepositsByStatus(@Param("status") ClientStatus status);
+
+    // Not cached, the version has to be the one in the database
+    @Query("SELECT new com.tutoring_calendar.dto.DepositBalance(c.deposit, c.version) FROM Client c WHERE c.id = :clientId")
+    Optional<DepositBalance> findDepositBalance(@Param("clientId") Long clientId);
+
+    List<Client> findAllByFullNameIn(Collection<String> fullNames);
+
+    @Query("SELECT new com.tutoring_calendar.dto.ClientView(c.id, c.fullName, c.clientStatus) FROM Client c WHERE c.id IN :ids")
+    List<ClientView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
 }
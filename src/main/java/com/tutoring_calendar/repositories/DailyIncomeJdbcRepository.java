@@ -0,0 +1,13 @@
+package com.tutoring_calendar.repositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface DailyIncomeJdbcRepository {
+
+    /**
+     * Adds the amounts to the row of the day, creating it when it is missing. A single statement in the
+     * caller's transaction, so no second connection is needed to create the row.
+     */
+    void addToDay(String tenantId, LocalDate date, BigDecimal expected, BigDecimal realized);
+}
@@ -0,0 +1,22 @@
+package com.tutoring_calendar.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class DailyIncomeJdbcRepositoryImpl implements DailyIncomeJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String upsertSql;
+
+    public DailyIncomeJdbcRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.upsertSql = IncomeUpsertSql.forTable(jdbcTemplate, "income_daily", "income_date");
+    }
+
+    @Override
+    public void addToDay(String tenantId, LocalDate date, BigDecimal expected, BigDecimal realized) {
+        jdbcTemplate.update(upsertSql, tenantId, date, expected, realized);
+    }
+}
@@ -0,0 +1,35 @@
+package com.tutoring_calendar.repositories;
+
+import com.tutoring_calendar.dto.IncomeSummary;
+import com.tutoring_calendar.models.DailyIncome;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+
+public interface DailyIncomeRepository extends JpaRepository<DailyIncome, DailyIncome.Key>, DailyIncomeJdbcRepository {
+
+    boolean existsByTenantId(String tenantId);
+
+    @Modifying
+    @Query("DELETE FROM DailyIncome d WHERE d.tenantId = :tenantId")
+    int deleteAllByTenantId(@Param("tenantId") String tenantId);
+
+    /**
+     * Sums the current (dated before {@code today}) and expected income of the week and of the month
+     * from at most one rollup row per day of the union of both ranges.
+     */
+    @Query("SELECT new com.tutoring_calendar.dto.IncomeSummary(" +
+            "SUM(CASE WHEN d.date BETWEEN :firstDayOfWeek AND :lastDayOfWeek AND d.date < :today THEN d.expectedIncome END), " +
+            "SUM(CASE WHEN d.date BETWEEN :firstDayOfWeek AND :lastDayOfWeek THEN d.expectedIncome END), " +
+            "SUM(CASE WHEN d.date BETWEEN :firstDayOfMonth AND :lastDayOfMonth AND d.date < :today THEN d.expectedIncome END), " +
+            "SUM(CASE WHEN d.date BETWEEN :firstDayOfMonth AND :lastDayOfMonth THEN d.expectedIncome END)) " +
+            "FROM DailyIncome d WHERE d.tenantId = :tenantId AND d.date BETWEEN :firstDay AND :lastDay")
+    IncomeSummary summarizeIncome(@Param("tenantId") String tenantId,
+                                  @Param("firstDayOfWeek") LocalDate firstDayOfWeek, @Param("lastDayOfWeek") LocalDate lastDayOfWeek,
+                                  @Param("firstDayOfMonth") LocalDate firstDayOfMonth, @Param("lastDayOfMonth") LocalDate lastDayOfMonth,
+                                  @Param("firstDay") LocalDate firstDay, @Param("lastDay") LocalDate lastDay,
+                                  @Param("today") LocalDate today);
+}
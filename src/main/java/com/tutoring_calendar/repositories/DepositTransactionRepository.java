@@ -0,0 +1,13 @@
+package com.tutoring_calendar.repositories;
+
+import com.tutoring_calendar.models.DepositTransaction;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DepositTransactionRepository extends JpaRepository<DepositTransaction, Long> {
+
+    long countByClientId(Long clientId);
+
+    Slice<DepositTransaction> findAllByClientIdOrderByIdDesc(Long clientId, Pageable pageable);
+}
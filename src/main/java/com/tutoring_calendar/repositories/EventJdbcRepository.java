@@ -0,0 +1,23 @@
+package com.tutoring_calendar.repositories;
+
+import com.tutoring_calendar.dto.EventFilter;
+import com.tutoring_calendar.dto.EventView;
+import com.tutoring_calendar.dto.FeedEvent;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+public interface EventJdbcRepository {
+
+    /**
+     * Passes every event matching the filter to {@code consumer} while reading through a forward-only
+     * cursor. The rows are never collected into a list and clients are not joined, only their IDs are read.
+     */
+    void streamEvents(EventFilter filter, Consumer<EventView> consumer);
+
+    /**
+     * Passes the events from {@code firstDay} on and every repeatable series, however old, to
+     * {@code consumer} through a forward-only cursor. Each series comes right before its occurrences.
+     */
+    void streamFeedEvents(LocalDate firstDay, Consumer<FeedEvent> consumer);
+}
@@ -0,0 +1,90 @@
+package com.tutoring_calendar.repositories;
+
+import com.tutoring_calendar.dto.EventFilter;
+import com.tutoring_calendar.dto.EventView;
+import com.tutoring_calendar.dto.FeedEvent;
+import com.tutoring_calendar.enums.EventStatus;
+import com.tutoring_calendar.tenancy.TenantContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Plain SQL gets no tenant restriction from Hibernate, every query names the current tenant itself
+public class EventJdbcRepositoryImpl implements EventJdbcRepository {
+
+    private static final String SELECT_EVENTS_SQL =
+            "SELECT e.id, e.client_id, e.price, e.date, e.start_time, e.finish_time, e.repeatable, e.status, " +
+            "COALESCE(e.original_id, e.id) AS original_id FROM events e WHERE e.tenant_id = ?";
+
+    // Occurrences follow their series: both sort by the series ID, and the series was created first
+    private static final String SELECT_FEED_EVENTS_SQL =
+            "SELECT e.id, COALESCE(e.original_id, e.id) AS original_id, c.full_name, e.price, e.date, e.start_time, " +
+            "e.finish_time, e.repeatable, e.status FROM events e JOIN clients c ON c.id = e.client_id " +
+            "WHERE e.tenant_id = ? AND (e.date >= ? OR (e.repeatable = TRUE AND (e.original_id = e.id OR e.original_id IS NULL))) " +
+            "ORDER BY COALESCE(e.original_id, e.id), e.id";
+
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    // MySQL Connector/J only streams rows one by one with a fetch size of Integer.MIN_VALUE,
+    // other drivers take a positive fetch size
+    public EventJdbcRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                   @Value("${calendar.events.stream-fetch-size:500}") int streamFetchSize) {
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(streamFetchSize);
+    }
+
+    @Override
+    public void streamEvents(EventFilter filter, Consumer<EventView> consumer) {
+        StringBuilder sql = new StringBuilder(SELECT_EVENTS_SQL);
+        List<Object> args = new ArrayList<>();
+        args.add(TenantContext.getTenantId());
+        if (filter.getFrom() != null) {
+            sql.append(" AND e.date >= ?");
+            args.add(filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            sql.append(" AND e.date <= ?");
+            args.add(filter.getTo());
+        }
+        if (filter.getClientId() != null) {
+            sql.append(" AND e.client_id = ?");
+            args.add(filter.getClientId());
+        }
+        if (filter.getEventStatus() != null) {
+            sql.append(" AND e.status = ?");
+            args.add(filter.getEventStatus().ordinal());
+        }
+
+        RowCallbackHandler handler = rs -> consumer.accept(mapEvent(rs));
+        streamingJdbcTemplate.query(sql.toString(), handler, args.toArray());
+    }
+
+    @Override
+    public void streamFeedEvents(LocalDate firstDay, Consumer<FeedEvent> consumer) {
+        RowCallbackHandler handler = rs -> consumer.accept(new FeedEvent(rs.getLong("id"), rs.getLong("original_id"),
+                rs.getString("full_name"), rs.getBigDecimal("price"), rs.getObject("date", LocalDate.class),
+                rs.getObject("start_time", LocalTime.class), rs.getObject("finish_time", LocalTime.class),
+                rs.getBoolean("repeatable"), toEnum(EventStatus.values(), rs, "status")));
+        streamingJdbcTemplate.query(SELECT_FEED_EVENTS_SQL, handler, TenantContext.getTenantId(), firstDay);
+    }
+
+    private EventView mapEvent(ResultSet rs) throws SQLException {
+        return new EventView(rs.getLong("id"), rs.getLong("client_id"), rs.getBigDecimal("price"),
+                rs.getObject("date", LocalDate.class), rs.getObject("start_time", LocalTime.class),
+                rs.getObject("finish_time", LocalTime.class), rs.getBoolean("repeatable"),
+                toEnum(EventStatus.values(), rs, "status"), rs.getObject("original_id", Long.class));
+    }
+
+    private static <E extends Enum<E>> E toEnum(E[] values, ResultSet rs, String column) throws SQLException {
+        int ordinal = rs.getInt(column);
+        return rs.wasNull() ? null : values[ordinal];
+    }
+}
@@ -1,26 +1,75 @@
 package com.tutoring_calendar.repositories;
 
+import com.tutoring_calendar.dto.DueEvent;
+import com.tutoring_calendar.dto.EventSlot;
+import com.tutoring_calendar.dto.EventView;
+import com.tutoring_calendar.dto.SeriesOccurrence;
+import com.tutoring_calendar.enums.EventStatus;
 import com.tutoring_calendar.models.Client;
+import com.tutoring_calendar.models.DailyIncome;
 import com.tutoring_calendar.models.Event;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, EventJdbcRepository {
 
-    @Query("SELECT e FROM Event e WHERE e.date BETWEEN :firstDayOfWeek AND :lastDayOfWeek")
-    List<Event> findAllByDateRange(@Param("firstDayOfWeek") LocalDate firstDay, @Param("lastDayOfWeek") LocalDate lastDay);
+    // Like findById but restricted to the current tenant, see ClientRepository#findInTenant
+    @Query("SELECT e FROM Event e WHERE e.id = :id")
+    Optional<Event> findInTenant(@Param("id") Long id);
+
+    @Query("SELECT new com.tutoring_calendar.dto.EventView(e.id, e.client.id, e.price, e.date, e.startTime, e.finishTime, " +
+            "e.repeatable, e.eventStatus, COALESCE(e.originalId, e.id)) FROM Event e WHERE e.date BETWEEN :firstDayOfWeek AND :lastDayOfWeek")
+    List<EventView> findViewsByDateRange(@Param("firstDayOfWeek") LocalDate firstDay, @Param("lastDayOfWeek") LocalDate lastDay);
+
+    @Query("SELECT new com.tutoring_calendar.dto.EventSlot(e.id, COALESCE(e.originalId, e.id), e.date, e.startTime, " +
+            "e.finishTime, e.repeatable) FROM Event e")
+    List<EventSlot> findAllSlots();
+
+    @Query("SELECT new com.tutoring_calendar.models.DailyIncome(e.tenantId, e.date, SUM(e.price), " +
+            "SUM(CASE WHEN e.eventStatus = :finished THEN e.price END)) FROM Event e GROUP BY e.tenantId, e.date")
+    List<DailyIncome> summarizeIncomeByDate(@Param("finished") EventStatus finished);
 
     @Query("SELECT e FROM Event e WHERE e.client=:client")
     List<Event> findAllByClient(@Param("client") Client client);
 
-    @Query("SELECT e FROM Event e WHERE e.id = e.originalId")
-    List<Event> findAllOriginalEvents();
+    @Query("SELECT new com.tutoring_calendar.dto.DueEvent(e.id, e.client.id, e.price, e.date) FROM Event e " +
+            "WHERE e.eventStatus = :created AND e.id > :lastId " +
+            "AND (e.date < :cutoffDate OR (e.date = :cutoffDate AND e.finishTime < :cutoffTime)) ORDER BY e.id")
+    List<DueEvent> findDueEvents(@Param("created") EventStatus created, @Param("lastId") Long lastId,
+                                 @Param("cutoffDate") LocalDate cutoffDate, @Param("cutoffTime") LocalTime cutoffTime,
+                                 Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.eventStatus = :finished WHERE e.id IN :ids AND e.eventStatus = :created")
+    int finishEvents(@Param("ids") Collection<Long> ids, @Param("created") EventStatus created, @Param("finished") EventStatus finished);
+
+    @Query("SELECT e FROM Event e WHERE e.repeatable = true AND e.id = e.originalId AND e.date < :date")
+    List<Event> findRepeatableSeriesStartedBefore(@Param("date") LocalDate date);
+
+    @Query("SELECT new com.tutoring_calendar.dto.SeriesOccurrence(e.originalId, e.date) FROM Event e " +
+            "WHERE e.originalId <> e.id AND e.date BETWEEN :firstDay AND :lastDay")
+    List<SeriesOccurrence> findSeriesOccurrencesBetween(@Param("firstDay") LocalDate firstDay, @Param("lastDay") LocalDate lastDay);
+
+    @Query("SELECT e FROM Event e WHERE e.originalId = :seriesId AND e.id <> :seriesId AND e.date BETWEEN :firstDay AND :lastDay")
+    List<Event> findOccurrencesOfSeriesBetween(@Param("seriesId") Long seriesId, @Param("firstDay") LocalDate firstDay, @Param("lastDay") LocalDate lastDay);
 
-    @Query("SELECT e FROM Event e WHERE e.originalId = :id AND e.id != :id AND e.date BETWEEN :firstDayOfWeek AND :lastDayOfWeek")
-    Optional<Event> findRecurringEventOfSelectedWeek(@Param("id") Long id, @Param("firstDayOfWeek") LocalDate firstDay, @Param("lastDayOfWeek") LocalDate lastDay);
+    @Query("SELECT new com.tutoring_calendar.dto.EventView(e.id, e.client.id, e.price, e.date, e.startTime, e.finishTime, " +
+            "e.repeatable, e.eventStatus, COALESCE(e.originalId, e.id)) FROM Event e " +
+            "WHERE (:from IS NULL OR e.date >= :from) AND (:to IS NULL OR e.date <= :to) " +
+            "AND (:clientId IS NULL OR e.client.id = :clientId) AND (:status IS NULL OR e.eventStatus = :status) " +
+            "AND (:afterDate IS NULL OR e.date > :afterDate OR (e.date = :afterDate AND e.id > :afterId)) " +
+            "ORDER BY e.date, e.id")
+    List<EventView> findViewPageAfter(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                      @Param("clientId") Long clientId, @Param("status") EventStatus status,
+                                      @Param("afterDate") LocalDate afterDate, @Param("afterId") Long afterId,
+                                      Pageable pageable);
 }
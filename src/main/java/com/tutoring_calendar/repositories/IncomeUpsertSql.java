@@ -0,0 +1,34 @@
+package com.tutoring_calendar.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import java.sql.DatabaseMetaData;
+
+/**
+ * Builds the statement that adds to a row of an income rollup table and creates the row when it is
+ * missing, in the dialect of the database behind the {@link JdbcTemplate}. Parameters are the tenant,
+ * the date, the expected and the realized amount.
+ */
+final class IncomeUpsertSql {
+
+    private IncomeUpsertSql() {
+    }
+
+    static String forTable(JdbcTemplate jdbcTemplate, String table, String dateColumn) {
+        String databaseName = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                DatabaseMetaData::getDatabaseProductName);
+        if ("H2".equals(databaseName)) {
+            return "MERGE INTO " + table + " t USING (VALUES (CAST(? AS VARCHAR(64)), CAST(? AS DATE), " +
+                    "CAST(? AS NUMERIC(38, 2)), CAST(? AS NUMERIC(38, 2)))) AS v(tenant_id, " + dateColumn + ", " +
+                    "expected_income, realized_income) ON t.tenant_id = v.tenant_id AND t." + dateColumn + " = v." + dateColumn + " " +
+                    "WHEN MATCHED THEN UPDATE SET expected_income = t.expected_income + v.expected_income, " +
+                    "realized_income = t.realized_income + v.realized_income " +
+                    "WHEN NOT MATCHED THEN INSERT (tenant_id, " + dateColumn + ", expected_income, realized_income) " +
+                    "VALUES (v.tenant_id, v." + dateColumn + ", v.expected_income, v.realized_income)";
+        }
+        return "INSERT INTO " + table + " (tenant_id, " + dateColumn + ", expected_income, realized_income) " +
+                "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE expected_income = expected_income + VALUES(expected_income), " +
+                "realized_income = realized_income + VALUES(realized_income)";
+    }
+}
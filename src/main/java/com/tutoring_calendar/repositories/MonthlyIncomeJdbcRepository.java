@@ -0,0 +1,12 @@
+package com.tutoring_calendar.repositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface MonthlyIncomeJdbcRepository {
+
+    /**
+     * Same as {@link DailyIncomeJdbcRepository#addToDay} for the row of the month starting at {@code monthStart}.
+     */
+    void addToMonth(String tenantId, LocalDate monthStart, BigDecimal expected, BigDecimal realized);
+}
@@ -0,0 +1,22 @@
+package com.tutoring_calendar.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class MonthlyIncomeJdbcRepositoryImpl implements MonthlyIncomeJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String upsertSql;
+
+    public MonthlyIncomeJdbcRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.upsertSql = IncomeUpsertSql.forTable(jdbcTemplate, "income_monthly", "month_start");
+    }
+
+    @Override
+    public void addToMonth(String tenantId, LocalDate monthStart, BigDecimal expected, BigDecimal realized) {
+        jdbcTemplate.update(upsertSql, tenantId, monthStart, expected, realized);
+    }
+}
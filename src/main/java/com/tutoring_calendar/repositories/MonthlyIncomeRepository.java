@@ -0,0 +1,20 @@
+package com.tutoring_calendar.repositories;
+
+import com.tutoring_calendar.models.MonthlyIncome;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface MonthlyIncomeRepository extends JpaRepository<MonthlyIncome, MonthlyIncome.Key>, MonthlyIncomeJdbcRepository {
+
+    @Modifying
+    @Query("DELETE FROM MonthlyIncome m WHERE m.tenantId = :tenantId")
+    int deleteAllByTenantId(@Param("tenantId") String tenantId);
+
+    List<MonthlyIncome> findAllByTenantIdAndMonthStartBetweenOrderByMonthStart(String tenantId, LocalDate firstMonth,
+                                                                               LocalDate lastMonth);
+}
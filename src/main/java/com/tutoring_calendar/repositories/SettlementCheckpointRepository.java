@@ -0,0 +1,7 @@
+package com.tutoring_calendar.repositories;
+
+import com.tutoring_calendar.models.SettlementCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SettlementCheckpointRepository extends JpaRepository<SettlementCheckpoint, String> {
+}
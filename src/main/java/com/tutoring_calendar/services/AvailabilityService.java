@@ -0,0 +1,87 @@
+package com.tutoring_calendar.services;
+
+import com.tutoring_calendar.dto.AvailableSlot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Finds the free stretches of the working hours in a range of days. The occupancy of each day comes
+ * from {@link EventIntervalIndex} as an {@link OccupancyBitmap}, so no event is read from the database.
+ */
+@Service
+@Slf4j
+public class AvailabilityService {
+
+    // Below this the days are scanned on the calling thread, splitting would cost more than it saves
+    private static final int PARALLEL_THRESHOLD_DAYS = 28;
+
+    private final EventIntervalIndex eventIntervalIndex;
+    private final int dayStartSlot;
+    private final int dayEndSlot;
+
+    public AvailabilityService(EventIntervalIndex eventIntervalIndex,
+                               @Value("${calendar.availability.day-start:08:00}") String dayStart,
+                               @Value("${calendar.availability.day-end:21:00}") String dayEnd) {
+        this.eventIntervalIndex = eventIntervalIndex;
+        this.dayStartSlot = OccupancyBitmap.slotStartingAtOrAfter(LocalTime.parse(dayStart).toSecondOfDay() / 60);
+        this.dayEndSlot = LocalTime.parse(dayEnd).toSecondOfDay() / 60 / OccupancyBitmap.SLOT_MINUTES;
+    }
+
+    /**
+     * Returns the free stretches of at least {@code durationMinutes} from {@code from} to {@code to},
+     * in date and time order. Time that has already passed is never free.
+     */
+    public List<AvailableSlot> findAvailableSlots(LocalDate from, LocalDate to, int durationMinutes) {
+        log.debug("Searching free slots of {} minutes from {} to {}.", durationMinutes, from, to);
+
+        LocalDateTime now = LocalDateTime.now();
+        int length = OccupancyBitmap.slotStartingAtOrAfter(durationMinutes);
+        long[][] occupancy = eventIntervalIndex.occupancy(from, to);
+
+        IntStream days = IntStream.range(0, occupancy.length);
+        if (occupancy.length > PARALLEL_THRESHOLD_DAYS) {
+            days = days.parallel();
+        }
+        List<AvailableSlot> slots = days
+                .mapToObj(day -> findFreeRuns(from.plusDays(day), occupancy[day], length, now))
+                .flatMap(List::stream)
+                .toList();
+
+        log.debug("Found {} free slots.", slots.size());
+        return slots;
+    }
+
+    private List<AvailableSlot> findFreeRuns(LocalDate date, long[] occupied, int length, LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+        if (date.isBefore(today)) {
+            return List.of();
+        }
+        int start = dayStartSlot;
+        if (date.equals(today)) {
+            start = Math.max(start, OccupancyBitmap.slotStartingAtOrAfter(now.toLocalTime().toSecondOfDay() / 60 + 1));
+        }
+
+        List<AvailableSlot> runs = new ArrayList<>();
+        int free = OccupancyBitmap.nextFreeSlot(occupied, start, dayEndSlot);
+        while (free < dayEndSlot) {
+            int taken = OccupancyBitmap.nextTakenSlot(occupied, free, dayEndSlot);
+            if (taken - free >= length) {
+                runs.add(new AvailableSlot(date, timeOf(free), timeOf(taken)));
+            }
+            free = OccupancyBitmap.nextFreeSlot(occupied, taken, dayEndSlot);
+        }
+        return runs;
+    }
+
+    private static LocalTime timeOf(int slot) {
+        return LocalTime.ofSecondOfDay(OccupancyBitmap.minuteOf(slot) * 60L);
+    }
+}
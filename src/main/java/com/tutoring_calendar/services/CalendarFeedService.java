@@ -0,0 +1,186 @@
+package com.tutoring_calendar.services;
+
+import com.tutoring_calendar.dto.FeedEvent;
+import com.tutoring_calendar.repositories.EventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Writes the schedule as an iCalendar feed. A repeatable series is one VEVENT with a weekly RRULE, its
+ * materialized occurrences are left out unless they differ from what the rule projects, then they
+ * override that occurrence by RECURRENCE-ID. Events before the first day of the feed are left out,
+ * series starting earlier are moved to their first occurrence from that day on.
+ */
+@Service
+@Slf4j
+public class CalendarFeedService {
+
+    private static final String PRODUCT_ID = "-//tutoring_calendar//calendar feed//EN";
+    private static final String UID_SUFFIX = "@tutoring-calendar";
+
+    private final EventRepository eventRepository;
+    private final WeekVersionRegistry weekVersions;
+    private final int pastWeeks;
+
+    public CalendarFeedService(EventRepository eventRepository, WeekVersionRegistry weekVersions,
+                               @Value("${calendar.feed.past-weeks:12}") int pastWeeks) {
+        this.eventRepository = eventRepository;
+        this.weekVersions = weekVersions;
+        this.pastWeeks = pastWeeks;
+    }
+
+    /**
+     * @return the first day of a feed written today, a Monday
+     */
+    public LocalDate getFirstDay() {
+        return LocalDate.now().minusWeeks(pastWeeks).with(DayOfWeek.MONDAY);
+    }
+
+    /**
+     * @return the ETag of the feed starting at {@code firstDay}, known without reading the database
+     */
+    public String getEtag(LocalDate firstDay) {
+        return weekVersions.etag(firstDay);
+    }
+
+    public long getLastModified() {
+        return weekVersions.getLastModified();
+    }
+
+    /**
+     * Writes the feed starting at {@code firstDay} to {@code writer}, straight from a database cursor.
+     */
+    @Transactional(readOnly = true)
+    public void writeFeed(LocalDate firstDay, Writer writer) throws IOException {
+        log.info("Writing calendar feed from {}.", firstDay);
+
+        // The cursor is read with plain JDBC, pending changes of the persistence context must reach the database first
+        eventRepository.flush();
+
+        ICalendarWriter calendar = new ICalendarWriter(writer);
+        calendar.line("BEGIN", "VCALENDAR");
+        calendar.line("VERSION", "2.0");
+        calendar.line("PRODID", PRODUCT_ID);
+        calendar.line("CALSCALE", "GREGORIAN");
+        calendar.text("X-WR-CALNAME", "Tutoring calendar");
+
+        FeedWriter feedWriter = new FeedWriter(calendar, firstDay, ICalendarWriter.utc(getLastModified()));
+        try {
+            eventRepository.streamFeedEvents(firstDay, feedWriter);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        calendar.line("END", "VCALENDAR");
+        writer.flush();
+        log.info("Wrote {} events to the calendar feed.", feedWriter.written);
+    }
+
+    /**
+     * Turns the rows of the cursor into VEVENTs. Rows come grouped by series with the series first,
+     * so only the current series and the weeks it already has an override for are kept.
+     */
+    private static class FeedWriter implements Consumer<FeedEvent> {
+
+        private final ICalendarWriter calendar;
+        private final LocalDate firstDay;
+        private final LocalDateTime stamp;
+        private FeedEvent series;
+        private final Set<LocalDate> overriddenWeeks = new HashSet<>();
+        private int written;
+
+        FeedWriter(ICalendarWriter calendar, LocalDate firstDay, LocalDateTime stamp) {
+            this.calendar = calendar;
+            this.firstDay = firstDay;
+            this.stamp = stamp;
+        }
+
+        @Override
+        public void accept(FeedEvent event) {
+            try {
+                write(event);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void write(FeedEvent event) throws IOException {
+            if (event.isSeries()) {
+                series = event;
+                overriddenWeeks.clear();
+                writeSeries(event);
+                return;
+            }
+
+            if (series == null || !series.getId().equals(event.getOriginalId())) {
+                series = null;
+                writeEvent(event, uid(event.getId()), event.getDate(), null);
+                return;
+            }
+
+            // A series projects one occurrence into each later week, any other row of a week stands alone
+            LocalDate startOfWeek = event.getDate().with(DayOfWeek.MONDAY);
+            if (!startOfWeek.isAfter(series.getDate()) || !overriddenWeeks.add(startOfWeek)) {
+                writeEvent(event, uid(event.getId()), event.getDate(), null);
+                return;
+            }
+
+            LocalDate projectedDate = startOfWeek.with(series.getDate().getDayOfWeek());
+            if (event.getDate().equals(projectedDate)
+                    && event.getStartTime().equals(series.getStartTime())
+                    && event.getFinishTime().equals(series.getFinishTime())
+                    && event.getPrice().compareTo(series.getPrice()) == 0) {
+                return;
+            }
+            writeEvent(event, uid(series.getId()), event.getDate(), projectedDate.atTime(series.getStartTime()));
+        }
+
+        private void writeSeries(FeedEvent event) throws IOException {
+            LocalDate start = event.getDate().isBefore(firstDay)
+                    ? firstDay.with(TemporalAdjusters.nextOrSame(event.getDate().getDayOfWeek()))
+                    : event.getDate();
+
+            calendar.line("BEGIN", "VEVENT");
+            writeProperties(event, uid(event.getId()), start);
+            calendar.line("RRULE", "FREQ=WEEKLY");
+            calendar.line("END", "VEVENT");
+            written++;
+        }
+
+        private void writeEvent(FeedEvent event, String uid, LocalDate date, LocalDateTime recurrenceId) throws IOException {
+            calendar.line("BEGIN", "VEVENT");
+            writeProperties(event, uid, date);
+            if (recurrenceId != null) {
+                calendar.dateTime("RECURRENCE-ID", recurrenceId);
+            }
+            calendar.line("END", "VEVENT");
+            written++;
+        }
+
+        private void writeProperties(FeedEvent event, String uid, LocalDate date) throws IOException {
+            calendar.line("UID", uid);
+            calendar.utcDateTime("DTSTAMP", stamp);
+            calendar.dateTime("DTSTART", date.atTime(event.getStartTime()));
+            calendar.dateTime("DTEND", date.atTime(event.getFinishTime()));
+            calendar.text("SUMMARY", event.getClientName());
+            calendar.line("X-TUTORING-PRICE", event.getPrice().toPlainString());
+        }
+
+        private static String uid(Long id) {
+            return "event-" + id + UID_SUFFIX;
+        }
+    }
+}
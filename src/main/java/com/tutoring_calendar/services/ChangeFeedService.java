@@ -0,0 +1,197 @@
+package com.tutoring_calendar.services;
+
+import com.tutoring_calendar.dto.CalendarChange;
+import com.tutoring_calendar.tenancy.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes committed {@link CalendarChange}s to server-sent event subscribers. The last changes are kept in
+ * a ring buffer, a subscriber reconnecting with {@code Last-Event-ID} gets what it missed replayed, or a
+ * {@code reset} event when that is no longer buffered. Every subscriber has a bounded queue drained by a
+ * small sender pool; a subscriber that falls behind is disconnected and resumes on reconnect instead of
+ * holding back the others. Subscribers only get the changes of the tenant they subscribed in, event IDs
+ * are shared by all tenants.
+ */
+@Service
+@Slf4j
+public class ChangeFeedService {
+
+    private static final String RESET_EVENT = "reset";
+
+    private final int bufferSize;
+    private final int subscriberQueueSize;
+    private final long emitterTimeoutMillis;
+    private final Deque<FeedEntry> buffer = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender;
+    private final Counter droppedSubscribers;
+    // Ids continue from the start time, ids of an earlier run are then always too old to resume from
+    private long lastId = System.currentTimeMillis();
+
+    public ChangeFeedService(@Value("${calendar.changes.buffer-size:1000}") int bufferSize,
+                             @Value("${calendar.changes.subscriber-queue-size:256}") int subscriberQueueSize,
+                             @Value("${calendar.changes.emitter-timeout-ms:1800000}") long emitterTimeoutMillis,
+                             @Value("${calendar.changes.sender-threads:4}") int senderThreads,
+                             MeterRegistry meterRegistry) {
+        this.bufferSize = bufferSize;
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.sender = Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("change-feed-"));
+        Gauge.builder("calendar.changes.subscribers", subscribers, Set::size)
+                .description("Connected change feed subscribers")
+                .register(meterRegistry);
+        this.droppedSubscribers = Counter.builder("calendar.changes.subscribers.dropped")
+                .description("Subscribers disconnected because their queue was full")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(Subscriber::close);
+        sender.shutdownNow();
+    }
+
+    // Runs after the publishing transaction committed, or right away outside of one
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onChange(CalendarChange change) {
+        FeedEntry entry = new FeedEntry(++lastId, TenantContext.getTenantId(), change.getType().name(), change);
+        if (buffer.size() == bufferSize) {
+            buffer.removeFirst();
+        }
+        buffer.addLast(entry);
+        subscribers.stream()
+                .filter(subscriber -> subscriber.receives(entry))
+                .forEach(subscriber -> subscriber.offer(entry));
+    }
+
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, TenantContext.getTenantId());
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        synchronized (this) {
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        }
+        log.debug("Change feed subscriber connected after event ID {}, {} connected.", lastEventId, subscribers.size());
+        return emitter;
+    }
+
+    private void replay(Subscriber subscriber, long lastEventId) {
+        long oldestId = buffer.isEmpty() ? lastId + 1 : buffer.getFirst().id();
+        if (lastEventId < oldestId - 1 || lastEventId > lastId) {
+            subscriber.offer(new FeedEntry(lastId, null, RESET_EVENT, ""));
+            return;
+        }
+        buffer.stream()
+                .filter(entry -> entry.id() > lastEventId && subscriber.receives(entry))
+                .forEach(subscriber::offer);
+    }
+
+    // Lets idle connections be noticed by proxies and by the server when the client is gone
+    @Scheduled(fixedRateString = "${calendar.changes.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        subscribers.forEach(subscriber -> subscriber.offer(FeedEntry.HEARTBEAT));
+    }
+
+    // Heartbeats and resets have no tenant, they are only ever offered to their subscriber directly
+    private record FeedEntry(long id, String tenantId, String name, Object data) {
+
+        static final FeedEntry HEARTBEAT = new FeedEntry(0, null, null, null);
+
+        SseEmitter.SseEventBuilder toEvent() {
+            if (this == HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().id(String.valueOf(id)).name(name).data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final String tenantId;
+        private final BlockingQueue<FeedEntry> queue = new ArrayBlockingQueue<>(subscriberQueueSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, String tenantId) {
+            this.emitter = emitter;
+            this.tenantId = tenantId;
+        }
+
+        boolean receives(FeedEntry entry) {
+            return tenantId.equals(entry.tenantId());
+        }
+
+        void offer(FeedEntry entry) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(entry)) {
+                log.info("Change feed subscriber fell behind, disconnecting it.");
+                droppedSubscribers.increment();
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                FeedEntry entry;
+                while (!closed && (entry = queue.poll()) != null) {
+                    emitter.send(entry.toEvent());
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Change feed subscriber disconnected: {}", e.getMessage());
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // An entry offered after the loop ended but before the flag was reset
+            if (!closed && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+            emitter.complete();
+        }
+    }
+}
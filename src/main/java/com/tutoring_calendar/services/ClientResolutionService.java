@@ -0,0 +1,145 @@
+package com.tutoring_calendar.services;
+
+import com.tutoring_calendar.enums.ClientStatus;
+import com.tutoring_calendar.models.Client;
+import com.tutoring_calendar.repositories.ClientRepository;
+import com.tutoring_calendar.tenancy.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maps a client's full name to the ID of its one client row in the current tenant, creating the row on
+ * first use. The row is looked up and inserted when missing; two requests may both miss it, and the unique
+ * index on {@code clients(tenant_id, full_name)} then fails the later insert, after which the row of the
+ * other request is read back. Resolved IDs are kept in a bounded least-recently-used cache that is never
+ * invalidated, clients are archived but not deleted or renamed. Call it before opening a transaction: the
+ * lookup and the insert run in transactions of their own, which inside another one would hold a second connection.
+ */
+@Service
+@Slf4j
+public class ClientResolutionService {
+
+    private final ClientRepository clientRepository;
+    private final TransactionTemplate newTransaction;
+    private final Map<String, Long> idsByName;
+
+    public ClientResolutionService(ClientRepository clientRepository, PlatformTransactionManager transactionManager,
+                                   @Value("${calendar.clients.name-cache-size:1000}") int nameCacheSize) {
+        this.clientRepository = clientRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.idsByName = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > nameCacheSize;
+            }
+        });
+    }
+
+    /**
+     * Returns the ID of the client with the given full name, creating an active client with an empty
+     * deposit if there is none. Safe to call concurrently for the same name.
+     */
+    public Long resolveClientId(String fullName) {
+        Long cachedId = idsByName.get(cacheKey(fullName));
+        if (cachedId != null) {
+            return cachedId;
+        }
+
+        // Both steps run in their own transactions, so the caller's snapshot never hides a row
+        // committed by a concurrent request
+        Long clientId;
+        try {
+            clientId = newTransaction.execute(status -> findOrInsert(fullName));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Client {} was created concurrently, reading it back.", fullName);
+            clientId = newTransaction.execute(status -> clientRepository.findByFullName(fullName)
+                    .map(Client::getId)
+                    .orElseThrow(() -> e));
+        }
+
+        idsByName.put(cacheKey(fullName), clientId);
+        return clientId;
+    }
+
+    /**
+     * Resolves a whole set of names at once: one query for the existing clients and one batched insert
+     * for the new ones. Falls back to resolving name by name if another request created one of them meanwhile.
+     */
+    public Map<String, Long> resolveClientIds(Collection<String> fullNames) {
+        Map<String, Long> resolvedIds = new HashMap<>();
+        Set<String> missingNames = new LinkedHashSet<>();
+        for (String fullName : fullNames) {
+            Long cachedId = idsByName.get(cacheKey(fullName));
+            if (cachedId != null) {
+                resolvedIds.put(fullName, cachedId);
+            } else {
+                missingNames.add(fullName);
+            }
+        }
+        if (missingNames.isEmpty()) {
+            return resolvedIds;
+        }
+
+        Map<String, Long> missingIds;
+        try {
+            missingIds = newTransaction.execute(status -> findOrInsertAll(missingNames));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Some of {} clients were created concurrently, resolving them one by one.", missingNames.size());
+            missingIds = new HashMap<>();
+            for (String fullName : missingNames) {
+                missingIds.put(fullName, resolveClientId(fullName));
+            }
+        }
+
+        missingIds.forEach((fullName, clientId) -> idsByName.put(cacheKey(fullName), clientId));
+        resolvedIds.putAll(missingIds);
+        return resolvedIds;
+    }
+
+    // The same name stands for a different client in every tenant
+    private static String cacheKey(String fullName) {
+        return TenantContext.getTenantId() + '\u0000' + fullName;
+    }
+
+    private Map<String, Long> findOrInsertAll(Set<String> fullNames) {
+        Map<String, Long> ids = clientRepository.findAllByFullNameIn(fullNames).stream()
+                .collect(Collectors.toMap(Client::getFullName, Client::getId));
+
+        List<Client> newClients = fullNames.stream()
+                .filter(fullName -> !ids.containsKey(fullName))
+                .map(fullName -> new Client(null, fullName, BigDecimal.ZERO, ClientStatus.ACTIVE))
+                .toList();
+        clientRepository.saveAllAndFlush(newClients).forEach(client -> ids.put(client.getFullName(), client.getId()));
+
+        log.debug("Resolved {} clients, {} of them new.", ids.size(), newClients.size());
+        return ids;
+    }
+
+    private Long findOrInsert(String fullName) {
+        return clientRepository.findByFullName(fullName)
+                .map(Client::getId)
+                .orElseGet(() -> {
+                    Client client = clientRepository.saveAndFlush(
+                            new Client(null, fullName, BigDecimal.ZERO, ClientStatus.ACTIVE));
+                    log.debug("New client created with ID {}.", client.getId());
+                    return client.getId();
+                });
+    }
+}
@@ -1,18 +1,24 @@
 package com.tutoring_calendar.services;
 
+import com.tutoring_calendar.dto.CalendarChange;
+import com.tutoring_calendar.dto.DepositTotals;
+import com.tutoring_calendar.enums.ChangeType;
 import com.tutoring_calendar.enums.ClientStatus;
+import com.tutoring_calendar.enums.DepositTransactionType;
 import com.tutoring_calendar.models.Client;
 import com.tutoring_calendar.models.Event;
 import com.tutoring_calendar.repositories.ClientRepository;
 import com.tutoring_calendar.repositories.EventRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -20,104 +26,109 @@ public class ClientService {
 
     private final ClientRepository clientRepository;
     private final EventRepository eventRepository;
-
-    public ClientService(ClientRepository clientRepository, EventRepository eventRepository) {
+    private final DepositLedgerService depositLedgerService;
+    private final EventIntervalIndex eventIntervalIndex;
+    private final WeekViewCache weekViewCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ClientService(ClientRepository clientRepository, EventRepository eventRepository,
+                         DepositLedgerService depositLedgerService, EventIntervalIndex eventIntervalIndex,
+                         WeekViewCache weekViewCache, ApplicationEventPublisher eventPublisher) {
         this.clientRepository = clientRepository;
         this.eventRepository = eventRepository;
+        this.depositLedgerService = depositLedgerService;
+        this.eventIntervalIndex = eventIntervalIndex;
+        this.weekViewCache = weekViewCache;
+        this.eventPublisher = eventPublisher;
     }
 
-    public List<Client> getAllClients() {
-        log.info("Getting all active clients and sorting them by full name.");
+    public Slice<Client> getActiveClients(Pageable pageable) {
+        log.info("Getting page {} of active clients sorted by {}.", pageable.getPageNumber(), pageable.getSort());
 
-        List<Client> activeClients = clientRepository
-                .findAll()
-                .stream()
-                .filter(client -> client.getClientStatus().equals(ClientStatus.ACTIVE))
-                .sorted(Comparator.comparing(Client::getFullName))
-                .collect(Collectors.toList());
+        Slice<Client> activeClients = clientRepository.findAllByClientStatus(ClientStatus.ACTIVE, pageable);
 
-        log.debug("Retrieved {} active clients.", activeClients.size());
+        log.debug("Retrieved {} active clients.", activeClients.getNumberOfElements());
         return activeClients;
     }
 
-    public BigDecimal countNotPaidIncome(List<Client> clients) {
-        log.info("Calculating total not paid income.");
-
-        BigDecimal notPaidIncome = new BigDecimal("0");
-        for (Client client : clients) {
-            BigDecimal clientCurrentDeposit = client.getDeposit();
+    /**
+     * Sums the negative (not paid) and the positive (paid forward) deposits of all active clients in one query.
+     */
+    public DepositTotals getDepositTotals() {
+        log.info("Calculating total not paid and paid forward income.");
 
-            if (clientCurrentDeposit != null && clientCurrentDeposit.compareTo(BigDecimal.valueOf(0)) < 0) {
-                notPaidIncome = notPaidIncome.add(clientCurrentDeposit);
-            }
-        }
+        DepositTotals totals = clientRepository.sumDepositsByStatus(ClientStatus.ACTIVE);
 
-        log.debug("Total not paid income calculated: {}", notPaidIncome);
-        return notPaidIncome;
+        log.debug("Deposit totals calculated: {}", totals);
+        return totals;
     }
 
-    public BigDecimal countPaidForwardIncome(List<Client> clients) {
-        log.info("Calculating total paid forward income.");
-
-        BigDecimal paidForwardIncome = new BigDecimal("0");
-        for (Client client : clients) {
-            BigDecimal clientCurrentDeposit = client.getDeposit();
+    /**
+     * Sets the deposit of the client, see {@link DepositLedgerService#setBalance}.
+     *
+     * @param expectedVersion version of the client the new amount was based on, or null to apply it anyway
+     */
+    public boolean updateDeposit(Long clientId, BigDecimal newDepositAmount, Long expectedVersion) {
+        log.debug("Updating deposit for client with ID: {}", clientId);
 
-            if (clientCurrentDeposit != null && clientCurrentDeposit.compareTo(BigDecimal.valueOf(0)) > 0) {
-                paidForwardIncome = paidForwardIncome.add(clientCurrentDeposit);
-            }
+        if (clientId != null && depositLedgerService.setBalance(clientId, newDepositAmount, expectedVersion)) {
+            eventPublisher.publishEvent(CalendarChange.ofClient(ChangeType.CLIENT_DEPOSIT_CHANGED, clientId));
+            return true;
         }
 
-        log.debug("Total paid forward income calculated: {}", paidForwardIncome);
-        return paidForwardIncome;
+        log.warn("Failed to update deposit. Client with ID {} does not exist.", clientId);
+        return false;
     }
 
-    public boolean updateDeposit(Long clientId, BigDecimal newDepositAmount) {
-        log.debug("Updating deposit for client with ID: {}", clientId);
-
-        if (clientId != null && clientRepository.existsById(clientId)) {
-            Optional<Client> clientOptional = clientRepository.findById(clientId);
+    /**
+     * Adds a payment (positive) or a charge (negative) to the deposit of the client.
+     */
+    public boolean adjustDeposit(Long clientId, BigDecimal amount) {
+        log.debug("Adjusting deposit for client with ID {} by {}.", clientId, amount);
 
-            return clientOptional.map(client -> {
-                client.setDeposit(newDepositAmount);
-                clientRepository.save(client);
-                return true;
-            }).orElse(false);
+        if (clientId != null && depositLedgerService.post(clientId, amount, DepositTransactionType.ADJUSTMENT)) {
+            eventPublisher.publishEvent(CalendarChange.ofClient(ChangeType.CLIENT_DEPOSIT_CHANGED, clientId));
+            return true;
         }
 
-        log.warn("Failed to update deposit. Client with ID {} does not exist.", clientId);
+        log.warn("Failed to adjust deposit. Client with ID {} does not exist.", clientId);
         return false;
     }
 
     public boolean archiveClient(Long clientId) {
         log.debug("Archiving client with ID: {}", clientId);
 
-        if (clientId == null || !clientRepository.existsById(clientId)) {
+        Optional<Client> clientOptional = clientId == null ? Optional.empty() : clientRepository.findInTenant(clientId);
+        if (clientOptional.isEmpty()) {
             log.warn("Failed to archive client. Client with ID {} does not exist.", clientId);
             return false;
         }
 
-        Optional<Client> clientOptional = clientRepository.findById(clientId);
-        clientOptional.ifPresent(client -> {
-            client.setClientStatus(ClientStatus.ARCHIVED);
-            stopRepeatClientServices(client);
-            clientRepository.save(client);
-        });
+        Client client = clientOptional.get();
+        client.setClientStatus(ClientStatus.ARCHIVED);
+        stopRepeatClientServices(client);
+        clientRepository.save(client);
+        weekViewCache.evictClients(List.of(clientId));
+        eventPublisher.publishEvent(CalendarChange.ofClient(ChangeType.CLIENT_ARCHIVED, clientId));
 
         log.debug("Client with ID {} has been archived.", clientId);
-        return clientOptional.isPresent();
+        return true;
     }
 
     private void stopRepeatClientServices(Client client) {
         log.debug("Stopping repeat services for client with ID: {}", client.getId());
 
         List<Event> clientEvents = eventRepository.findAllByClient(client);
+        List<Event> stoppedSeries = new ArrayList<>();
         for (Event event : clientEvents) {
             if (event.isRepeatable()) {
                 event.setRepeatable(false);
                 eventRepository.save(event);
+                stoppedSeries.add(event);
             }
         }
+        // The series project no more occurrences
+        eventIntervalIndex.indexAll(stoppedSeries);
 
         log.debug("Stopped repeat services for client with ID: {}", client.getId());
     }
@@ -0,0 +1,121 @@
+package com.tutoring_calendar.services;
+
+import com.tutoring_calendar.dto.DepositBalance;
+import com.tutoring_calendar.enums.DepositTransactionType;
+import com.tutoring_calendar.exceptions.DepositConflictException;
+import com.tutoring_calendar.models.DepositTransaction;
+import com.tutoring_calendar.repositories.ClientRepository;
+import com.tutoring_calendar.repositories.DepositTransactionRepository;
+import com.tutoring_calendar.tenancy.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Changes client deposits. Every change is appended to {@code deposit_transactions} and applied to the
+ * balance in {@code clients.deposit} with an atomic {@code deposit = deposit + amount} update in the same
+ * transaction, so concurrent writers neither wait for each other nor overwrite each other's changes.
+ * Only clients of the current tenant of {@link TenantContext} are changed.
+ */
+@Service
+@Slf4j
+public class DepositLedgerService {
+
+    private static final int MAX_SET_ATTEMPTS = 3;
+
+    private final ClientRepository clientRepository;
+    private final DepositTransactionRepository depositTransactionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public DepositLedgerService(ClientRepository clientRepository, DepositTransactionRepository depositTransactionRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.clientRepository = clientRepository;
+        this.depositTransactionRepository = depositTransactionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Adds {@code amount} to the deposit of the client.
+     *
+     * @return false if the client does not exist
+     */
+    @Transactional
+    public boolean post(Long clientId, BigDecimal amount, DepositTransactionType type) {
+        if (clientRepository.addToDeposit(TenantContext.getTenantId(), clientId, amount) == 0) {
+            return false;
+        }
+        depositTransactionRepository.save(new DepositTransaction(null, clientId, amount, type, LocalDateTime.now()));
+        return true;
+    }
+
+    @Transactional
+    public void postAll(Map<Long, BigDecimal> amountByClient, DepositTransactionType type) {
+        String tenantId = TenantContext.getTenantId();
+        LocalDateTime now = LocalDateTime.now();
+        List<DepositTransaction> transactions = new ArrayList<>();
+        for (Map.Entry<Long, BigDecimal> entry : amountByClient.entrySet()) {
+            if (clientRepository.addToDeposit(tenantId, entry.getKey(), entry.getValue()) > 0) {
+                transactions.add(new DepositTransaction(null, entry.getKey(), entry.getValue(), type, now));
+            }
+        }
+        depositTransactionRepository.saveAll(transactions);
+    }
+
+    /**
+     * Sets the deposit of the client to {@code newBalance} by posting the difference to the current balance.
+     * The difference only applies while the client is at the version it was computed from. With an
+     * {@code expectedVersion} the caller's own read has to be current, without one a change that came in
+     * between is read again and the difference recomputed.
+     *
+     * @return false if the client does not exist
+     * @throws DepositConflictException if the client is no longer at {@code expectedVersion}, or kept changing
+     */
+    public boolean setBalance(Long clientId, BigDecimal newBalance, Long expectedVersion) {
+        for (int attempt = 1; attempt <= MAX_SET_ATTEMPTS; attempt++) {
+            Optional<Boolean> result = transactionTemplate.execute(status -> trySetBalance(clientId, newBalance, expectedVersion));
+            if (result == null || result.isPresent()) {
+                return result != null && result.get();
+            }
+            log.debug("Deposit of client with ID {} changed concurrently, attempt {} of {}.", clientId, attempt, MAX_SET_ATTEMPTS);
+        }
+        throw new DepositConflictException("Deposit of client with ID " + clientId + " keeps changing, try again.");
+    }
+
+    // Empty when the client changed between the read and the update
+    private Optional<Boolean> trySetBalance(Long clientId, BigDecimal newBalance, Long expectedVersion) {
+        Optional<DepositBalance> balanceOptional = clientRepository.findDepositBalance(clientId);
+        if (balanceOptional.isEmpty()) {
+            return Optional.of(false);
+        }
+
+        DepositBalance balance = balanceOptional.get();
+        if (expectedVersion != null && balance.getVersion() != expectedVersion) {
+            throw new DepositConflictException("Client with ID " + clientId + " was changed since version " + expectedVersion + ".");
+        }
+
+        BigDecimal current = balance.getDeposit() == null ? BigDecimal.ZERO : balance.getDeposit();
+        BigDecimal difference = newBalance.subtract(current);
+        if (difference.signum() == 0) {
+            return Optional.of(true);
+        }
+
+        if (clientRepository.addToDepositAtVersion(TenantContext.getTenantId(), clientId, difference, balance.getVersion()) == 0) {
+            if (expectedVersion != null) {
+                throw new DepositConflictException("Client with ID " + clientId + " was changed since version " + expectedVersion + ".");
+            }
+            return Optional.empty();
+        }
+        depositTransactionRepository.save(new DepositTransaction(null, clientId, difference, DepositTransactionType.ADJUSTMENT,
+                LocalDateTime.now()));
+        return Optional.of(true);
+    }
+}
@@ -0,0 +1,385 @@
+package com.tutoring_calendar.services;
+
+import com.tutoring_calendar.dto.EventSlot;
+import com.tutoring_calendar.models.Event;
+import com.tutoring_calendar.repositories.EventRepository;
+import com.tutoring_calendar.tenancy.TenantContext;
+import com.tutoring_calendar.tenancy.TenantDirectory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Keeps the time every event takes in memory, so that overlaps are found without reading the database.
+ * Persisted events are bucketed per day, repeatable series per day of week, both as arrays sorted by
+ * start time with a running maximum of the finish times: an overlap check is a binary search, plus one
+ * step per conflict found. Series project an occurrence into every later week that has no row of the
+ * series yet, the same rule {@link RecurrenceService} materializes by.
+ * <p>
+ * Day buckets also keep the day as an {@link OccupancyBitmap}, the free slot search combines it with
+ * the projected occurrences of the day.
+ * <p>
+ * Writes go through {@link #reserve}, which checks and indexes the event under one lock and takes the
+ * change back if the surrounding transaction rolls back. A new series is checked against its own date and
+ * the other series, not against single events in later weeks. The index is local to this instance.
+ * <p>
+ * Every tenant has an index of its own, an overlap only ever exists between events of the same tenant.
+ */
+@Component
+@Slf4j
+public class EventIntervalIndex {
+
+    private static final Interval[] NO_INTERVALS = new Interval[0];
+
+    private final EventRepository eventRepository;
+    private final TenantDirectory tenantDirectory;
+    private final Map<String, TenantIndex> indexes = new ConcurrentHashMap<>();
+
+    public EventIntervalIndex(EventRepository eventRepository, TenantDirectory tenantDirectory) {
+        this.eventRepository = eventRepository;
+        this.tenantDirectory = tenantDirectory;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        tenantDirectory.forEachTenant(tenantId -> tenantIndex().load());
+    }
+
+    /**
+     * Checks {@code event} against the events of its day, including projected occurrences of repeatable
+     * series, and a repeatable event also against the series on its day of week. Without overlaps the
+     * event is passed to {@code write} and indexed, both under the lock, so two overlapping events cannot
+     * be written at the same time. An update that keeps the date and the times of {@code previousState}
+     * is not checked.
+     *
+     * @return the conflicting events, empty when the event was written
+     */
+    public List<EventSlot> reserve(Event previousState, Event event, Consumer<Event> write) {
+        return tenantIndex().reserve(previousState, event, write);
+    }
+
+    /**
+     * Returns the occupancy of every day from {@code from} to {@code to}, persisted events and projected
+     * occurrences of repeatable series, one {@link OccupancyBitmap} per day. The bitmaps are copies.
+     */
+    public long[][] occupancy(LocalDate from, LocalDate to) {
+        return tenantIndex().occupancy(from, to);
+    }
+
+    /**
+     * Indexes events written without a check, e.g. materialized occurrences that take the slot their
+     * series projected anyway.
+     */
+    public void indexAll(Collection<Event> events) {
+        tenantIndex().indexAll(events);
+    }
+
+    // Created on first use, a tenant without events gets an empty index that loads like any other
+    private TenantIndex tenantIndex() {
+        return indexes.computeIfAbsent(TenantContext.getTenantId(), tenantId -> new TenantIndex());
+    }
+
+    /**
+     * The events of one tenant, with a lock of its own so tenants never wait for each other.
+     */
+    private class TenantIndex {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<LocalDate, DayBucket> days = new HashMap<>();
+        private final Map<DayOfWeek, DayBucket> series = new EnumMap<>(DayOfWeek.class);
+        private final Map<Long, Interval> intervalsById = new HashMap<>();
+        // Number of rows each series has per week, a week with a row gets no projected occurrence
+        private final Map<SeriesWeek, Integer> seriesRows = new HashMap<>();
+        private boolean loaded;
+
+        void load() {
+            lock.lock();
+            try {
+                ensureLoaded();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        List<EventSlot> reserve(Event previousState, Event event, Consumer<Event> write) {
+            lock.lock();
+            try {
+                ensureLoaded();
+                if (previousState == null || movesSlot(previousState, event)) {
+                    List<EventSlot> conflicts = findConflicts(Interval.of(event));
+                    if (!conflicts.isEmpty()) {
+                        return conflicts;
+                    }
+                }
+                write.accept(event);
+                index(event);
+                return List.of();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long[][] occupancy(LocalDate from, LocalDate to) {
+            lock.lock();
+            try {
+                ensureLoaded();
+                long[][] occupancy = new long[(int) ChronoUnit.DAYS.between(from, to) + 1][];
+                for (int day = 0; day < occupancy.length; day++) {
+                    LocalDate date = from.plusDays(day);
+                    LocalDate startOfWeek = date.with(DayOfWeek.MONDAY);
+                    long[] bits = bucket(days, date).occupied().clone();
+                    for (Interval interval : bucket(series, date.getDayOfWeek()).intervals()) {
+                        if (projectsInto(interval, startOfWeek)) {
+                            OccupancyBitmap.occupy(bits, interval.start(), interval.finish());
+                        }
+                    }
+                    occupancy[day] = bits;
+                }
+                return occupancy;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void indexAll(Collection<Event> events) {
+            lock.lock();
+            try {
+                if (loaded) {
+                    events.forEach(this::index);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void index(Event event) {
+            Interval interval = Interval.of(event);
+            Interval previous = put(interval);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status != STATUS_COMMITTED) {
+                            undo(interval, previous);
+                        }
+                    }
+                });
+            }
+        }
+
+        private void undo(Interval interval, Interval previous) {
+            lock.lock();
+            try {
+                // A later write of the same event already replaced the interval, it is the one to keep
+                if (intervalsById.get(interval.id()) != interval) {
+                    return;
+                }
+                remove(interval);
+                if (previous != null) {
+                    put(previous);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void ensureLoaded() {
+            if (loaded) {
+                return;
+            }
+            List<EventSlot> slots = eventRepository.findAllSlots();
+            slots.forEach(slot -> put(Interval.of(slot)));
+            loaded = true;
+            log.info("Indexed the time slots of {} events of tenant {}.", slots.size(), TenantContext.getTenantId());
+        }
+
+        private List<EventSlot> findConflicts(Interval candidate) {
+            List<EventSlot> conflicts = new ArrayList<>();
+            LocalDate date = candidate.date();
+            LocalDate startOfWeek = date.with(DayOfWeek.MONDAY);
+
+            bucket(days, date).overlapping(candidate.start(), candidate.finish(),
+                    interval -> !Objects.equals(interval.id(), candidate.id()),
+                    interval -> conflicts.add(interval.toSlot(interval.date())));
+
+            // Projections into this week; a series never overlaps itself
+            bucket(series, date.getDayOfWeek()).overlapping(candidate.start(), candidate.finish(),
+                    interval -> !interval.seriesId().equals(candidate.seriesId()) && projectsInto(interval, startOfWeek),
+                    interval -> conflicts.add(interval.toProjectionSlot(date)));
+
+            // A new series meets the later series on its day of week sooner or later, the earlier ones are projected above
+            if (candidate.series()) {
+                bucket(series, date.getDayOfWeek()).overlapping(candidate.start(), candidate.finish(),
+                        interval -> !interval.seriesId().equals(candidate.seriesId()) && interval.date().isAfter(date),
+                        interval -> conflicts.add(interval.toSlot(interval.date())));
+            }
+            return conflicts;
+        }
+
+        private boolean projectsInto(Interval series, LocalDate startOfWeek) {
+            return series.date().isBefore(startOfWeek) && !seriesRows.containsKey(new SeriesWeek(series.seriesId(), startOfWeek));
+        }
+
+        private Interval put(Interval interval) {
+            Interval previous = intervalsById.put(interval.id(), interval);
+            if (previous != null) {
+                unlink(previous);
+            }
+            days.compute(interval.date(), (date, bucket) -> (bucket == null ? DayBucket.EMPTY : bucket).with(interval));
+            if (interval.series()) {
+                series.compute(interval.date().getDayOfWeek(), (day, bucket) -> (bucket == null ? DayBucket.EMPTY : bucket).with(interval));
+            } else if (!interval.seriesId().equals(interval.id())) {
+                seriesRows.merge(SeriesWeek.of(interval), 1, Integer::sum);
+            }
+            return previous;
+        }
+
+        private void remove(Interval interval) {
+            intervalsById.remove(interval.id());
+            unlink(interval);
+        }
+
+        private void unlink(Interval interval) {
+            days.computeIfPresent(interval.date(), (date, bucket) -> bucket.without(interval.id()));
+            if (interval.series()) {
+                series.computeIfPresent(interval.date().getDayOfWeek(), (day, bucket) -> bucket.without(interval.id()));
+            } else if (!interval.seriesId().equals(interval.id())) {
+                seriesRows.computeIfPresent(SeriesWeek.of(interval), (week, rows) -> rows == 1 ? null : rows - 1);
+            }
+        }
+    }
+
+    private static boolean movesSlot(Event previousState, Event event) {
+        return !previousState.getDate().equals(event.getDate())
+                || !previousState.getStartTime().equals(event.getStartTime())
+                || !previousState.getFinishTime().equals(event.getFinishTime())
+                || (!previousState.isRepeatable() && event.isRepeatable());
+    }
+
+    private static <K> DayBucket bucket(Map<K, DayBucket> buckets, K key) {
+        return buckets.getOrDefault(key, DayBucket.EMPTY);
+    }
+
+    /**
+     * Intervals of one day sorted by start, with {@code maxFinish[i]} the latest finish among the first
+     * {@code i + 1} and the slots they occupy. Immutable, changes build a new bucket.
+     */
+    private record DayBucket(Interval[] intervals, int[] maxFinish, long[] occupied) {
+
+        static final DayBucket EMPTY = new DayBucket(NO_INTERVALS, new int[0], OccupancyBitmap.empty());
+
+        DayBucket with(Interval interval) {
+            int position = firstStartingAtOrAfter(interval.start() + 1);
+            Interval[] updated = new Interval[intervals.length + 1];
+            System.arraycopy(intervals, 0, updated, 0, position);
+            updated[position] = interval;
+            System.arraycopy(intervals, position, updated, position + 1, intervals.length - position);
+            return sorted(updated);
+        }
+
+        DayBucket without(Long id) {
+            Interval[] updated = Arrays.stream(intervals)
+                    .filter(interval -> !interval.id().equals(id))
+                    .toArray(Interval[]::new);
+            return updated.length == 0 ? null : sorted(updated);
+        }
+
+        /**
+         * Passes every interval that starts before {@code finish} and ends after {@code start} to
+         * {@code consumer}. Walks back from the last candidate only while the running maximum says an
+         * overlap is still possible.
+         */
+        void overlapping(int start, int finish, Predicate<Interval> filter, Consumer<Interval> consumer) {
+            for (int i = firstStartingAtOrAfter(finish) - 1; i >= 0 && maxFinish[i] > start; i--) {
+                Interval interval = intervals[i];
+                if (interval.finish() > start && filter.test(interval)) {
+                    consumer.accept(interval);
+                }
+            }
+        }
+
+        private int firstStartingAtOrAfter(int minute) {
+            int low = 0;
+            int high = intervals.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (intervals[middle].start() < minute) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private static DayBucket sorted(Interval[] intervals) {
+            int[] maxFinish = new int[intervals.length];
+            long[] occupied = OccupancyBitmap.empty();
+            for (int i = 0; i < intervals.length; i++) {
+                maxFinish[i] = Math.max(intervals[i].finish(), i == 0 ? 0 : maxFinish[i - 1]);
+                OccupancyBitmap.occupy(occupied, intervals[i].start(), intervals[i].finish());
+            }
+            return new DayBucket(intervals, maxFinish, occupied);
+        }
+    }
+
+    /**
+     * An event's slot in minutes of the day. For a series {@code date} is the date it started on.
+     */
+    private record Interval(Long id, Long seriesId, LocalDate date, int start, int finish, boolean series) {
+
+        static Interval of(Event event) {
+            Long seriesId = event.getOriginalId();
+            return new Interval(event.getId(), seriesId, event.getDate(), minuteOf(event.getStartTime()),
+                    minuteOf(event.getFinishTime()), event.isRepeatable() && Objects.equals(seriesId, event.getId()));
+        }
+
+        static Interval of(EventSlot slot) {
+            return new Interval(slot.getId(), slot.getOriginalId(), slot.getDate(), minuteOf(slot.getStartTime()),
+                    minuteOf(slot.getFinishTime()), slot.isRepeatable() && slot.getOriginalId().equals(slot.getId()));
+        }
+
+        EventSlot toSlot(LocalDate slotDate) {
+            return new EventSlot(id, seriesId, slotDate, timeOf(start), timeOf(finish), series);
+        }
+
+        EventSlot toProjectionSlot(LocalDate slotDate) {
+            return new EventSlot(null, seriesId, slotDate, timeOf(start), timeOf(finish), false);
+        }
+
+        private static int minuteOf(LocalTime time) {
+            return time.getHour() * 60 + time.getMinute();
+        }
+
+        private static LocalTime timeOf(int minute) {
+            return LocalTime.of(minute / 60, minute % 60);
+        }
+    }
+
+    private record SeriesWeek(Long seriesId, LocalDate startOfWeek) {
+
+        static SeriesWeek of(Interval occurrence) {
+            return new SeriesWeek(occurrence.seriesId(), occurrence.date().with(DayOfWeek.MONDAY));
+        }
+    }
+}
@@ -1,282 +1,454 @@
 package com.tutoring_calendar.services;
 
+import com.tutoring_calendar.dto.CalendarChange;
+import com.tutoring_calendar.dto.ClientView;
+import com.tutoring_calendar.dto.EventBatchItemResult;
+import com.tutoring_calendar.dto.EventFilter;
+import com.tutoring_calendar.dto.EventPage;
 import com.tutoring_calendar.dto.EventResponse;
+import com.tutoring_calendar.dto.EventSlot;
 import com.tutoring_calendar.dto.EventUpdateDTO;
-import com.tutoring_calendar.enums.ClientStatus;
+import com.tutoring_calendar.dto.EventView;
+import com.tutoring_calendar.dto.IncomeSummary;
+import com.tutoring_calendar.dto.WeekSnapshot;
+import com.tutoring_calendar.enums.ChangeType;
 import com.tutoring_calendar.enums.EventStatus;
+import com.tutoring_calendar.exceptions.EventConflictException;
 import com.tutoring_calendar.exceptions.EventNotFoundException;
-import com.tutoring_calendar.models.Client;
+import com.tutoring_calendar.exceptions.InvalidPageTokenException;
 import com.tutoring_calendar.models.Event;
 import com.tutoring_calendar.repositories.ClientRepository;
 import com.tutoring_calendar.repositories.EventRepository;
 import com.tutoring_calendar.services.mappers.EventMapper;
+import com.tutoring_calendar.tenancy.TenantDirectory;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class EventService {
 
+    private static final int CLIENT_LOOKUP_CHUNK_SIZE = 500;
+
     private final EventRepository eventRepository;
     private final ClientRepository clientRepository;
-
-    public EventService(EventRepository eventRepository, ClientRepository clientRepository) {
+    private final ClientResolutionService clientResolutionService;
+    private final RecurrenceService recurrenceService;
+    private final IncomeLedgerService incomeLedgerService;
+    private final SettlementService settlementService;
+    private final EventIntervalIndex eventIntervalIndex;
+    private final WeekViewCache weekViewCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TenantDirectory tenantDirectory;
+    private final TransactionTemplate transactionTemplate;
+
+    public EventService(EventRepository eventRepository, ClientRepository clientRepository,
+                        ClientResolutionService clientResolutionService, RecurrenceService recurrenceService, IncomeLedgerService incomeLedgerService,
+                        SettlementService settlementService, EventIntervalIndex eventIntervalIndex, WeekViewCache weekViewCache,
+                        ApplicationEventPublisher eventPublisher, TenantDirectory tenantDirectory,
+                        PlatformTransactionManager transactionManager) {
         this.eventRepository = eventRepository;
         this.clientRepository = clientRepository;
+        this.clientResolutionService = clientResolutionService;
+        this.recurrenceService = recurrenceService;
+        this.incomeLedgerService = incomeLedgerService;
+        this.settlementService = settlementService;
+        this.eventIntervalIndex = eventIntervalIndex;
+        this.weekViewCache = weekViewCache;
+        this.eventPublisher = eventPublisher;
+        this.tenantDirectory = tenantDirectory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    public List<Event> getAllEvents() {
-        log.info("Retrieving all events.");
-        return eventRepository.findAll();
+    /**
+     * Passes the events matching the filter to {@code consumer} one by one, straight from a database cursor.
+     */
+    @Transactional(readOnly = true)
+    public void streamEvents(EventFilter filter, Consumer<EventView> consumer) {
+        log.info("Streaming events matching {}.", filter);
+
+        // The cursor is read with plain JDBC, pending changes of the persistence context must reach the database first
+        eventRepository.flush();
+        eventRepository.streamEvents(filter, consumer);
     }
 
-    public BigDecimal calculateCurrentIncomeForWeek(List<Event> weekEvents) {
-        log.info("Calculating current income for the week.");
+    /**
+     * Returns up to {@code limit} events matching the filter, ordered by date and ID, that come after the
+     * position encoded in {@code pageToken}. The next page is looked up by the index instead of an offset.
+     */
+    public EventPage getEventsPage(EventFilter filter, String pageToken, int limit) {
+        log.debug("Retrieving page of {} events matching {} after token {}.", limit, filter, pageToken);
+
+        PagePosition after = pageToken == null || pageToken.isBlank()
+                ? new PagePosition(null, null)
+                : PagePosition.decode(pageToken);
+
+        List<EventView> events = eventRepository.findViewPageAfter(filter.getFrom(), filter.getTo(), filter.getClientId(),
+                filter.getEventStatus(), after.date(), after.id(), PageRequest.of(0, limit + 1));
+
+        String nextToken = null;
+        if (events.size() > limit) {
+            events = events.subList(0, limit);
+            EventView last = events.get(limit - 1);
+            nextToken = new PagePosition(last.getDate(), last.getId()).encode();
+        }
 
-        BigDecimal income = new BigDecimal("0");
+        log.debug("Retrieved {} events, next token {}.", events.size(), nextToken);
+        return new EventPage(events, getClientViews(events.stream().map(EventView::getClientId).toList()), nextToken);
+    }
 
-        for (Event event : weekEvents) {
-            if (event.getDate().isBefore(LocalDate.now())) {
-                income = income.add(event.getPrice());
-            }
+    /**
+     * Looks up the clients with the given IDs for the side map of an event response, each client once.
+     */
+    public Map<Long, ClientView> getClientViews(Collection<Long> clientIds) {
+        List<Long> ids = clientIds.stream().distinct().toList();
+        Map<Long, ClientView> clients = new TreeMap<>();
+        // Keeps the IN lists short when a whole event listing references many clients
+        for (int from = 0; from < ids.size(); from += CLIENT_LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CLIENT_LOOKUP_CHUNK_SIZE, ids.size()));
+            clientRepository.findViewsByIdIn(chunk).forEach(client -> clients.put(client.getId(), client));
         }
-        log.debug("Current income for the week calculated: {}", income);
-        return income;
+        return clients;
     }
 
-    public BigDecimal calculateExpectedIncomeForWeek(List<Event> weekEvents) {
-        log.info("Calculating expected income for the week.");
+    /**
+     * Calculates the current and expected income of the week and of the month of {@code dateOfWeek}.
+     * Persisted events are read from the income ledger rollups, the virtual occurrences are added on top.
+     */
+    public IncomeSummary calculateIncome(LocalDate dateOfWeek, LocalDate firstDayOfWeek, LocalDate lastDayOfWeek,
+                                         List<Event> virtualOccurrences) {
+        log.info("Calculating income for the week and the month.");
 
-        BigDecimal income = new BigDecimal("0");
+        LocalDate firstDateOfMonth = dateOfWeek.withDayOfMonth(1);
+        LocalDate lastDateOfMonth = YearMonth.from(dateOfWeek).atEndOfMonth();
+        LocalDate today = LocalDate.now();
 
-        for (Event event : weekEvents) {
-            income = income.add(event.getPrice());
-        }
-        log.debug("Expected income for the week calculated: {}", income);
+        IncomeSummary income = incomeLedgerService.summarizeIncome(firstDayOfWeek, lastDayOfWeek,
+                firstDateOfMonth, lastDateOfMonth, today);
+        addVirtualIncome(income, dateOfWeek, firstDayOfWeek, lastDayOfWeek, virtualOccurrences);
+
+        log.debug("Income calculated: {}", income);
         return income;
     }
 
-    public BigDecimal calculateCurrentIncomeForMonth(LocalDate date) {
-        log.info("Calculating current income for the month.");
-
-        LocalDate firstDateOfMonth = date.withDayOfMonth(1);
-        YearMonth yearMonth = YearMonth.from(date);
-        LocalDate lastDateOfMonth = yearMonth.atEndOfMonth();
-        List<Event> monthEvents = eventRepository.findAllByDateRange(firstDateOfMonth, lastDateOfMonth);
-
-        BigDecimal income = new BigDecimal("0");
-        for (Event event : monthEvents) {
-            if (event.getDate().isBefore(LocalDate.now())) {
-                income = income.add(event.getPrice());
+    /**
+     * Adds the prices of occurrences that only exist virtually to the income read from the ledger.
+     */
+    public IncomeSummary addVirtualIncome(IncomeSummary income, LocalDate dateOfWeek, LocalDate firstDayOfWeek,
+                                          LocalDate lastDayOfWeek, List<Event> virtualOccurrences) {
+        LocalDate firstDateOfMonth = dateOfWeek.withDayOfMonth(1);
+        LocalDate lastDateOfMonth = YearMonth.from(dateOfWeek).atEndOfMonth();
+        LocalDate today = LocalDate.now();
+
+        for (Event occurrence : virtualOccurrences) {
+            LocalDate date = occurrence.getDate();
+            BigDecimal price = occurrence.getPrice();
+            boolean passed = date.isBefore(today);
+
+            if (isDateInRange(date, firstDayOfWeek, lastDayOfWeek)) {
+                income.setExpectedWeekIncome(income.getExpectedWeekIncome().add(price));
+                if (passed) {
+                    income.setCurrentWeekIncome(income.getCurrentWeekIncome().add(price));
+                }
+            }
+            if (isDateInRange(date, firstDateOfMonth, lastDateOfMonth)) {
+                income.setExpectedMonthIncome(income.getExpectedMonthIncome().add(price));
+                if (passed) {
+                    income.setCurrentMonthIncome(income.getCurrentMonthIncome().add(price));
+                }
             }
         }
-        log.debug("Current income for the month calculated: {}", income);
         return income;
     }
 
-    public BigDecimal calculateExpectedIncomeForMonth(LocalDate date) {
-        log.info("Calculating expected income for the month.");
-
-        LocalDate firstDateOfMonth = date.withDayOfMonth(1);
-        YearMonth yearMonth = YearMonth.from(date);
-        LocalDate lastDateOfMonth = yearMonth.atEndOfMonth();
-        List<Event> monthEvents = eventRepository.findAllByDateRange(firstDateOfMonth, lastDateOfMonth);
-
-        BigDecimal income = new BigDecimal("0");
-        for (Event event : monthEvents) {
-            income = income.add(event.getPrice());
-        }
-        log.debug("Expected income for the month calculated: {}", income);
-        return income;
+    private boolean isDateInRange(LocalDate date, LocalDate firstDay, LocalDate lastDay) {
+        return !date.isBefore(firstDay) && !date.isAfter(lastDay);
     }
 
+    // Tenant by tenant, each one's due occurrences and settlement only read that tenant's events
     @Scheduled(cron = "0 1 * * * *")
     public void proceedCompletedEvents() {
         log.info("Starting to proceed completed events.");
 
-        List<Client> clients = clientRepository.findAll();
-        for (Client client : clients) {
-            processClientEvents(client);
-        }
+        LocalDateTime currentDateTime = LocalDateTime.now();
+        AtomicInteger settled = new AtomicInteger();
+        tenantDirectory.forEachTenant(tenantId -> {
+            if (recurrenceService.isVirtual()) {
+                recurrenceService.materializeDueOccurrences(settlementService.findLastCutoff().orElse(null), currentDateTime);
+            }
+            settled.addAndGet(settlementService.settleDueEvents(currentDateTime));
+        });
 
-        log.info("Completed proceeding all clients' events.");
+        log.info("Completed proceeding events, {} settled.", settled.get());
     }
 
-    private void processClientEvents(Client client) {
-        log.debug("Processing events for client with ID {}.", client.getId());
+    /**
+     * Adds one event. Its client is resolved before the transaction of the event opens, a new client is
+     * created in a transaction of its own and never waits for a second connection while one is held.
+     */
+    public Optional<Event> addEvent(Event newEvent) {
+        log.info("Adding a new event.");
 
-        List<Event> clientEvents = eventRepository.findAllByClient(client);
-        LocalDateTime currentDateTime = LocalDateTime.now();
+        Long clientId = clientResolutionService.resolveClientId(newEvent.getClient().getFullName());
+        return transactionTemplate.execute(status -> {
+            prepareNewEvent(newEvent, clientId);
 
-        for (Event event : clientEvents) {
-            LocalDateTime eventFinishDateTime = event.getDate().atTime(event.getFinishTime());
+            Event event = saveWithoutOverlap(null, newEvent);
+            incomeLedgerService.recordEventAdded(event);
+            weekViewCache.evictEvent(event);
+            publishChange(ChangeType.EVENT_CREATED, List.of(event), List.of());
 
-            if (eventFinishDateTime.isBefore(currentDateTime) && event.getEventStatus().equals(EventStatus.CREATED)) {
-                updateClientAndEvent(client, event);
-            }
-        }
-
-        log.debug("Finished processing events for client with ID {}.", client.getId());
+            log.debug("New event added with ID {}.", event.getId());
+            return Optional.of(event);
+        });
     }
 
-    private void updateClientAndEvent(Client client, Event event) {
-        log.debug("Updating client and event for event ID {}.", event.getId());
+    /**
+     * Adds all valid events of the batch in one transaction: clients are resolved for the whole batch at
+     * once, before that transaction opens, and the events go to the database as one batched insert.
+     * Invalid events and events overlapping other events, including earlier events of the batch, are
+     * reported and skipped.
+     *
+     * @return one result per event, in request order
+     */
+    public List<EventBatchItemResult> addEvents(List<Event> newEvents) {
+        log.info("Adding a batch of {} events.", newEvents.size());
+
+        EventBatchItemResult[] results = new EventBatchItemResult[newEvents.size()];
+        Map<Integer, Event> validEvents = new LinkedHashMap<>();
+        for (int i = 0; i < newEvents.size(); i++) {
+            String error = validateNewEvent(newEvents.get(i));
+            if (error != null) {
+                results[i] = new EventBatchItemResult(i, null, false, error);
+            } else {
+                validEvents.put(i, newEvents.get(i));
+            }
+        }
 
-        client.setDeposit(client.getDeposit().subtract(event.getPrice()));
-        event.setEventStatus(EventStatus.FINISHED);
-        eventRepository.save(event);
-        clientRepository.save(client);
+        Map<String, Long> clientIds = clientResolutionService.resolveClientIds(validEvents.values().stream()
+                .map(event -> event.getClient().getFullName())
+                .collect(Collectors.toSet()));
+        transactionTemplate.executeWithoutResult(status -> addValidEvents(validEvents, clientIds, results));
 
-        log.debug("Client and event updated for event ID {}.", event.getId());
+        log.debug("Added {} of {} events.", validEvents.size(), newEvents.size());
+        return Arrays.asList(results);
     }
 
-    public Optional<Event> addEvent(Event newEvent) {
-        log.info("Adding a new event.");
-
-        Client client = getOrCreateClient(newEvent.getClient());
-        newEvent.setClient(client);
-        newEvent.setEventStatus(EventStatus.CREATED);
+    private void addValidEvents(Map<Integer, Event> validEvents, Map<String, Long> clientIds, EventBatchItemResult[] results) {
+        validEvents.values().forEach(event -> prepareNewEvent(event, clientIds.get(event.getClient().getFullName())));
 
-        Event event = eventRepository.save(newEvent);
-
-        if (newEvent.getOriginalId() == null || newEvent.getOriginalId() <= 0) {
-            Long originalEventId = event.getId();
-            event.setOriginalId(originalEventId);
-            eventRepository.save(event);
+        // Persisted one by one to be checked against each other, the inserts are still batched at flush
+        validEvents.entrySet().removeIf(entry -> {
+            List<EventSlot> conflicts = eventIntervalIndex.reserve(null, entry.getValue(), eventRepository::save);
+            if (conflicts.isEmpty()) {
+                return false;
+            }
+            results[entry.getKey()] = new EventBatchItemResult(entry.getKey(), null, false,
+                    EventConflictException.message(conflicts));
+            return true;
+        });
+        incomeLedgerService.recordEventsAdded(validEvents.values());
+        validEvents.values().forEach(weekViewCache::evictEvent);
+        if (!validEvents.isEmpty()) {
+            publishChange(ChangeType.EVENT_CREATED, List.copyOf(validEvents.values()), List.of());
         }
+        validEvents.forEach((index, event) -> results[index] = new EventBatchItemResult(index, event.getId(), true, null));
+    }
 
-        log.debug("New event added with ID {}.", event.getId());
-        return Optional.of(event);
+    private String validateNewEvent(Event event) {
+        if (event == null) {
+            return "Event is mandatory";
+        }
+        if (event.getClient() == null || event.getClient().getFullName() == null || event.getClient().getFullName().isBlank()) {
+            return "Client is mandatory";
+        }
+        if (event.getPrice() == null) {
+            return "Price is mandatory";
+        }
+        if (event.getDate() == null) {
+            return "Date is mandatory";
+        }
+        if (event.getStartTime() == null || event.getFinishTime() == null) {
+            return "Start and finish time of event are mandatory";
+        }
+        if (!event.getFinishTime().isAfter(event.getStartTime())) {
+            return "Finish time must be after start time";
+        }
+        return null;
     }
 
-    private Client getOrCreateClient(Client client) {
-        log.debug("Getting or creating client with full name: {}", client.getFullName());
+    private void prepareNewEvent(Event newEvent, Long clientId) {
+        newEvent.setId(null);
+        newEvent.setClient(clientRepository.getReferenceById(clientId));
+        newEvent.setEventStatus(EventStatus.CREATED);
 
-        String clientFullName = client.getFullName();
-        return clientRepository.findByFullName(clientFullName).orElseGet(() -> {
-            client.setClientStatus(ClientStatus.ACTIVE);
-            client.setDeposit(BigDecimal.valueOf(0));
-            Client createdClient = clientRepository.save(client);
-            log.debug("New client created with ID {}.", createdClient.getId());
-            return createdClient;
-        });
+        // Without an original the event starts its own series and reports its own ID, see Event#getOriginalId
+        if (newEvent.getOriginalId() != null && newEvent.getOriginalId() <= 0) {
+            newEvent.setOriginalId(null);
+        }
     }
 
+    @Transactional
     public Optional<Event> updateEventData(EventUpdateDTO updatedEventData) {
 
         if(updatedEventData.getId() == null){
-            return Optional.empty();
+            return updateVirtualOccurrence(updatedEventData);
         }
 
         log.debug("Updating event data for event ID: {}", updatedEventData.getId());
 
-        Optional<Event> eventOptional = eventRepository.findById(updatedEventData.getId());
+        Optional<Event> eventOptional = eventRepository.findInTenant(updatedEventData.getId());
 
         Event savedEvent = eventOptional.orElseThrow(() -> new EventNotFoundException("Event not found in database"));
+        Event previousState = new Event(savedEvent);
 
         savedEvent = EventMapper.INSTANCE.populateEventWithPresentEventUpdateDTOFields(savedEvent, updatedEventData);
 
-        Event updatedEvent = eventRepository.save(savedEvent);
+        Event updatedEvent = saveWithoutOverlap(previousState, savedEvent);
+        incomeLedgerService.recordEventChanged(previousState, updatedEvent);
+        weekViewCache.evictEventChange(previousState, updatedEvent);
+        publishChange(ChangeType.EVENT_UPDATED, List.of(updatedEvent), List.of(previousState.getDate()));
 
         log.debug("Event data updated for event ID: {}", updatedEventData.getId());
         return Optional.of(updatedEvent);
     }
 
-    public EventResponse getEventsForSelectedWeek(LocalDate dateOfWeek) {
-
-        log.debug("Retrieving events for the selected week starting from: {}", dateOfWeek);
-
-        LocalDate firstDayOfSearchedWeek = dateOfWeek.with(DayOfWeek.MONDAY);
-        LocalDate lastDayOfSearchedWeek = dateOfWeek.with(DayOfWeek.SUNDAY);
-
-        createRecurringEventsForWeek(dateOfWeek, firstDayOfSearchedWeek, lastDayOfSearchedWeek);
-
-        List<Event> events = eventRepository.findAllByDateRange(firstDayOfSearchedWeek, lastDayOfSearchedWeek);
-        log.debug("Retrieved {} events for the selected week.", events.size());
-
-        BigDecimal currentWeekIncome = calculateCurrentIncomeForWeek(events);
-        BigDecimal expectedWeekIncome = calculateExpectedIncomeForWeek(events);
-        BigDecimal currentMonthIncome = calculateCurrentIncomeForMonth(dateOfWeek);
-        BigDecimal expectedMonthIncome = calculateExpectedIncomeForMonth(dateOfWeek);
+    /**
+     * Stores an edit of a virtual occurrence (no id yet) as an exception row of its series.
+     * The occurrence is identified by {@code originalId} and the week of {@code date}.
+     */
+    private Optional<Event> updateVirtualOccurrence(EventUpdateDTO updatedEventData) {
+        if (updatedEventData.getOriginalId() == null || updatedEventData.getDate() == null) {
+            return Optional.empty();
+        }
 
-        log.debug("Calculated incomes - Current Week: {}, Expected Week: {}, Current Month: {}, Expected Month: {}",
-                currentWeekIncome, expectedWeekIncome, currentMonthIncome, expectedMonthIncome);
+        log.debug("Updating occurrence of series ID {} in the week of {}", updatedEventData.getOriginalId(), updatedEventData.getDate());
+
+        Event occurrence = recurrenceService
+                .findOrCreateOccurrence(updatedEventData.getOriginalId(), updatedEventData.getDate())
+                .orElseThrow(() -> new EventNotFoundException("Event not found in database"));
+        Event previousState = occurrence.getId() == null ? null : new Event(occurrence);
+
+        occurrence = EventMapper.INSTANCE.populateEventWithPresentEventUpdateDTOFields(occurrence, updatedEventData);
+        occurrence.setRepeatable(false);
+
+        Event savedOccurrence = saveWithoutOverlap(previousState, occurrence);
+        if (previousState == null) {
+            incomeLedgerService.recordEventAdded(savedOccurrence);
+            weekViewCache.evictEvent(savedOccurrence);
+            publishChange(ChangeType.EVENT_CREATED, List.of(savedOccurrence), List.of());
+        } else {
+            incomeLedgerService.recordEventChanged(previousState, savedOccurrence);
+            weekViewCache.evictEventChange(previousState, savedOccurrence);
+            publishChange(ChangeType.EVENT_UPDATED, List.of(savedOccurrence), List.of(previousState.getDate()));
+        }
 
-        return new EventResponse(events, currentWeekIncome, expectedWeekIncome,
-                currentMonthIncome, expectedMonthIncome);
+        log.debug("Occurrence of series ID {} saved with ID {}", updatedEventData.getOriginalId(), savedOccurrence.getId());
+        return Optional.of(savedOccurrence);
     }
 
-    private void createRecurringEventsForWeek(LocalDate targetDate, LocalDate startOfWeek, LocalDate endOfWeek) {
-        log.debug("Creating recurring events for the week starting from: {}", startOfWeek);
-
-        List<Event> originalEvents = eventRepository.findAllOriginalEvents();
-
-        for (Event event : originalEvents) {
-            if (eventShouldBeRecreated(event, targetDate, startOfWeek, endOfWeek)) {
-                Optional<Event> recurringEvent = eventRepository.findRecurringEventOfSelectedWeek(
-                        event.getId(), startOfWeek, endOfWeek);
-
-                if (recurringEvent.isEmpty()) {
-                    LocalDate newDateOfEvent = calculateNewEventDate(event.getDate(), startOfWeek);
-
-                    Event newRecurrentEvent = createRecurrentEvent(event, newDateOfEvent);
-                    addEvent(newRecurrentEvent);
-                }
-            }
+    private Event saveWithoutOverlap(Event previousState, Event event) {
+        List<EventSlot> conflicts = eventIntervalIndex.reserve(previousState, event, eventRepository::save);
+        if (!conflicts.isEmpty()) {
+            throw new EventConflictException(conflicts);
         }
+        return event;
+    }
 
-        log.info("Recurring events for the week created.");
+    // Delivered to the change feed once the transaction commits
+    private void publishChange(ChangeType type, List<Event> events, List<LocalDate> previousDates) {
+        List<LocalDate> dates = new ArrayList<>(previousDates);
+        events.forEach(event -> dates.add(event.getDate()));
+        eventPublisher.publishEvent(CalendarChange.ofEvents(type,
+                events.stream().map(Event::getId).toList(),
+                dates,
+                events.stream().map(event -> event.getClient().getId()).distinct().toList()));
     }
 
-    private boolean eventShouldBeRecreated(Event event, LocalDate targetDate, LocalDate startOfWeek, LocalDate endOfWeek) {
-        log.debug("Checking if event should be recreated for event ID: {}", event.getId());
+    public EventResponse getEventsForSelectedWeek(LocalDate dateOfWeek) {
+        return weekViewCache.get(dateOfWeek, () -> assembleWeek(dateOfWeek));
+    }
 
-        LocalDate eventDate = event.getDate();
-        boolean shouldBeRecreated = event.isRepeatable() && eventDate.isBefore(targetDate) && isDateInRange(targetDate, startOfWeek, endOfWeek);
+    public WeekSnapshot getWeekSnapshot(LocalDate dateOfWeek) {
+        return weekViewCache.getSnapshot(dateOfWeek, () -> assembleWeek(dateOfWeek));
+    }
 
-        log.debug("Date should{} be recreated for event ID: {}", shouldBeRecreated ? "" : " not", event.getId());
-        return shouldBeRecreated;
+    public String getWeekEtag(LocalDate dateOfWeek) {
+        return weekViewCache.getEtag(dateOfWeek);
     }
 
-    private boolean isDateInRange(LocalDate date, LocalDate startOfWeek, LocalDate endOfWeek) {
-        log.trace("Checking if date {} is in range [{}, {}]", date, startOfWeek, endOfWeek);
+    private EventResponse assembleWeek(LocalDate dateOfWeek) {
+
+        log.debug("Retrieving events for the selected week starting from: {}", dateOfWeek);
 
-        boolean isInRange = date.isAfter(startOfWeek) && date.isBefore(endOfWeek);
+        LocalDate firstDayOfSearchedWeek = dateOfWeek.with(DayOfWeek.MONDAY);
+        LocalDate lastDayOfSearchedWeek = dateOfWeek.with(DayOfWeek.SUNDAY);
 
-        log.trace("Date {} is in range [{}, {}]: {}", date, startOfWeek, endOfWeek, isInRange);
-        return isInRange;
-    }
+        recurrenceService.prepareWeek(firstDayOfSearchedWeek, lastDayOfSearchedWeek);
+
+        LocalDate firstDayOfMonth = dateOfWeek.withDayOfMonth(1);
+        LocalDate lastDayOfMonth = YearMonth.from(dateOfWeek).atEndOfMonth();
+        List<Event> virtualOccurrences = recurrenceService.findVirtualOccurrencesBetween(
+                firstDayOfSearchedWeek.isBefore(firstDayOfMonth) ? firstDayOfSearchedWeek : firstDayOfMonth,
+                lastDayOfSearchedWeek.isAfter(lastDayOfMonth) ? lastDayOfSearchedWeek : lastDayOfMonth);
 
-    private LocalDate calculateNewEventDate(LocalDate originalDate, LocalDate startOfWeek) {
-        log.debug("Calculating new event date for original event with date {} and start of the week {}", originalDate, startOfWeek);
+        List<EventView> events = new ArrayList<>(eventRepository.findViewsByDateRange(firstDayOfSearchedWeek, lastDayOfSearchedWeek));
+        virtualOccurrences.stream()
+                .filter(occurrence -> isDateInRange(occurrence.getDate(), firstDayOfSearchedWeek, lastDayOfSearchedWeek))
+                .map(EventView::of)
+                .forEach(events::add);
+        log.debug("Retrieved {} events for the selected week.", events.size());
 
-        DayOfWeek dayOfEvent = originalDate.getDayOfWeek();
-        LocalDate newEventDate = startOfWeek.with(dayOfEvent);
+        Map<Long, ClientView> clients = getClientViews(events.stream().map(EventView::getClientId).toList());
+        IncomeSummary income = calculateIncome(dateOfWeek, firstDayOfSearchedWeek, lastDayOfSearchedWeek, virtualOccurrences);
 
-        log.debug("Calculated new event date: {}", newEventDate);
-        return newEventDate;
+        return new EventResponse(events, clients, income.getCurrentWeekIncome(), income.getExpectedWeekIncome(),
+                income.getCurrentMonthIncome(), income.getExpectedMonthIncome());
     }
 
-    private Event createRecurrentEvent(Event originalEvent, LocalDate newDate) {
-        log.debug("Creating recurrent event for original event ID: {}", originalEvent.getId());
+    private record PagePosition(LocalDate date, Long id) {
 
-        Event newRecurrentEvent = new Event(originalEvent);
-        newRecurrentEvent.setId(-1L);
-        newRecurrentEvent.setDate(newDate);
-        newRecurrentEvent.setOriginalId(originalEvent.getId());
-        newRecurrentEvent.setEventStatus(EventStatus.CREATED);
-        newRecurrentEvent.setRepeatable(false);
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((date + ":" + id).getBytes(StandardCharsets.UTF_8));
+        }
 
-        log.debug("Recurrent event created for original event ID: {}", originalEvent.getId());
-        return newRecurrentEvent;
+        static PagePosition decode(String pageToken) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8).split(":");
+                if (parts.length != 2) {
+                    throw new InvalidPageTokenException("Malformed page token");
+                }
+                return new PagePosition(LocalDate.parse(parts[0]), Long.valueOf(parts[1]));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new InvalidPageTokenException("Malformed page token");
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,81 @@
+package com.tutoring_calendar.services;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes iCalendar (RFC 5545) content lines: CRLF line endings, lines folded at 75 octets and
+ * text values escaped. Date-times are floating, the calendar does not store a time zone.
+ */
+final class ICalendarWriter {
+
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final Writer writer;
+
+    ICalendarWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    void line(String name, String value) throws IOException {
+        String line = name + ":" + value;
+        int octets = 0;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int length = utf8Length(codePoint);
+            if (octets + length > MAX_LINE_OCTETS) {
+                // A continuation line starts with a space, which counts towards its 75 octets
+                writer.write("\r\n ");
+                octets = 1;
+            }
+            writer.write(line, i, Character.charCount(codePoint));
+            octets += length;
+            i += Character.charCount(codePoint);
+        }
+        writer.write("\r\n");
+    }
+
+    void text(String name, String value) throws IOException {
+        line(name, escape(value));
+    }
+
+    void dateTime(String name, LocalDateTime dateTime) throws IOException {
+        line(name, DATE_TIME.format(dateTime));
+    }
+
+    void utcDateTime(String name, LocalDateTime dateTime) throws IOException {
+        line(name, DATE_TIME.format(dateTime) + "Z");
+    }
+
+    static LocalDateTime utc(long epochMillis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000), 0, ZoneOffset.UTC);
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\', ';', ',' -> escaped.append('\\').append(c);
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> { }
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static int utf8Length(int codePoint) {
+        if (codePoint < 0x80) {
+            return 1;
+        }
+        if (codePoint < 0x800) {
+            return 2;
+        }
+        return codePoint < 0x10000 ? 3 : 4;
+    }
+}
@@ -0,0 +1,171 @@
+package com.tutoring_calendar.services;
+
+import com.tutoring_calendar.dto.IncomeSummary;
+import com.tutoring_calendar.enums.EventStatus;
+import com.tutoring_calendar.models.DailyIncome;
+import com.tutoring_calendar.models.Event;
+import com.tutoring_calendar.models.MonthlyIncome;
+import com.tutoring_calendar.repositories.DailyIncomeRepository;
+import com.tutoring_calendar.repositories.EventRepository;
+import com.tutoring_calendar.repositories.MonthlyIncomeRepository;
+import com.tutoring_calendar.tenancy.TenantContext;
+import com.tutoring_calendar.tenancy.TenantDirectory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps per-day and per-month totals of expected and realized (finished) income. The totals are
+ * updated in the transaction that changes the events, so reading income never scans the events table.
+ * Rows are kept per tenant, every method works on the current tenant of {@link TenantContext}.
+ */
+@Service
+@Slf4j
+public class IncomeLedgerService {
+
+    private final DailyIncomeRepository dailyIncomeRepository;
+    private final MonthlyIncomeRepository monthlyIncomeRepository;
+    private final EventRepository eventRepository;
+    private final WeekViewCache weekViewCache;
+    private final TenantDirectory tenantDirectory;
+    private final TransactionTemplate newTransaction;
+
+    public IncomeLedgerService(DailyIncomeRepository dailyIncomeRepository, MonthlyIncomeRepository monthlyIncomeRepository,
+                               EventRepository eventRepository, WeekViewCache weekViewCache,
+                               TenantDirectory tenantDirectory, PlatformTransactionManager transactionManager) {
+        this.dailyIncomeRepository = dailyIncomeRepository;
+        this.monthlyIncomeRepository = monthlyIncomeRepository;
+        this.eventRepository = eventRepository;
+        this.weekViewCache = weekViewCache;
+        this.tenantDirectory = tenantDirectory;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Transactional
+    public void recordEventAdded(Event event) {
+        add(event.getDate(), event.getPrice(), realizedPrice(event));
+    }
+
+    @Transactional
+    public void recordEventsAdded(Collection<Event> events) {
+        Map<LocalDate, BigDecimal> expectedByDate = new TreeMap<>();
+        Map<LocalDate, BigDecimal> realizedByDate = new TreeMap<>();
+        for (Event event : events) {
+            expectedByDate.merge(event.getDate(), event.getPrice(), BigDecimal::add);
+            realizedByDate.merge(event.getDate(), realizedPrice(event), BigDecimal::add);
+        }
+
+        expectedByDate.forEach((date, expected) -> add(date, expected, realizedByDate.get(date)));
+    }
+
+    /**
+     * Moves the totals of an event from its previous state to its current one. Covers price, date and
+     * status changes in one go.
+     */
+    @Transactional
+    public void recordEventChanged(Event previousState, Event currentState) {
+        if (previousState.getDate().equals(currentState.getDate())) {
+            add(currentState.getDate(),
+                    currentState.getPrice().subtract(previousState.getPrice()),
+                    realizedPrice(currentState).subtract(realizedPrice(previousState)));
+            return;
+        }
+
+        add(previousState.getDate(), previousState.getPrice().negate(), realizedPrice(previousState).negate());
+        add(currentState.getDate(), currentState.getPrice(), realizedPrice(currentState));
+    }
+
+    @Transactional
+    public void recordIncomeRealized(Map<LocalDate, BigDecimal> realizedByDate) {
+        realizedByDate.forEach((date, realized) -> add(date, BigDecimal.ZERO, realized));
+    }
+
+    public IncomeSummary summarizeIncome(LocalDate firstDayOfWeek, LocalDate lastDayOfWeek,
+                                         LocalDate firstDayOfMonth, LocalDate lastDayOfMonth, LocalDate today) {
+        LocalDate firstDay = firstDayOfWeek.isBefore(firstDayOfMonth) ? firstDayOfWeek : firstDayOfMonth;
+        LocalDate lastDay = lastDayOfWeek.isAfter(lastDayOfMonth) ? lastDayOfWeek : lastDayOfMonth;
+
+        return dailyIncomeRepository.summarizeIncome(TenantContext.getTenantId(), firstDayOfWeek, lastDayOfWeek,
+                firstDayOfMonth, lastDayOfMonth, firstDay, lastDay, today);
+    }
+
+    public List<MonthlyIncome> getMonthlyIncome(YearMonth firstMonth, YearMonth lastMonth) {
+        return monthlyIncomeRepository.findAllByTenantIdAndMonthStartBetweenOrderByMonthStart(
+                TenantContext.getTenantId(), firstMonth.atDay(1), lastMonth.atDay(1));
+    }
+
+    // Checked tenant by tenant, one with rows must not keep another one's ledger from being built.
+    // One transaction per tenant, a session stays with the tenant it was opened for
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        tenantDirectory.forEachTenant(tenantId -> {
+            if (!dailyIncomeRepository.existsByTenantId(tenantId)) {
+                newTransaction.executeWithoutResult(status -> rebuild());
+            }
+        });
+    }
+
+    /**
+     * Recomputes the totals of the current tenant from the events table. Only needed once for data created
+     * before the ledger existed, or after the events table was changed behind the application's back.
+     */
+    @Transactional
+    public void rebuild() {
+        String tenantId = TenantContext.getTenantId();
+        log.info("Rebuilding income ledger of tenant {} from events.", tenantId);
+
+        dailyIncomeRepository.deleteAllByTenantId(tenantId);
+        monthlyIncomeRepository.deleteAllByTenantId(tenantId);
+
+        List<DailyIncome> dailyIncomes = eventRepository.summarizeIncomeByDate(EventStatus.FINISHED);
+        Map<LocalDate, MonthlyIncome> monthlyIncomes = new TreeMap<>();
+        for (DailyIncome dailyIncome : dailyIncomes) {
+            if (dailyIncome.getRealizedIncome() == null) {
+                dailyIncome.setRealizedIncome(BigDecimal.ZERO);
+            }
+
+            MonthlyIncome monthlyIncome = monthlyIncomes.computeIfAbsent(dailyIncome.getDate().withDayOfMonth(1),
+                    monthStart -> new MonthlyIncome(tenantId, monthStart, BigDecimal.ZERO, BigDecimal.ZERO));
+            monthlyIncome.setExpectedIncome(monthlyIncome.getExpectedIncome().add(dailyIncome.getExpectedIncome()));
+            monthlyIncome.setRealizedIncome(monthlyIncome.getRealizedIncome().add(dailyIncome.getRealizedIncome()));
+        }
+
+        dailyIncomeRepository.saveAll(dailyIncomes);
+        monthlyIncomeRepository.saveAll(monthlyIncomes.values());
+        weekViewCache.evictAll();
+
+        log.info("Income ledger of tenant {} rebuilt for {} days and {} months.", tenantId, dailyIncomes.size(), monthlyIncomes.size());
+    }
+
+    private void add(LocalDate date, BigDecimal expected, BigDecimal realized) {
+        if (expected.signum() == 0 && realized.signum() == 0) {
+            return;
+        }
+
+        String tenantId = TenantContext.getTenantId();
+        // Upserts in the caller's transaction: a missing row is created by the same statement, an UPDATE
+        // that missed would hold a gap lock and block the insert
+        dailyIncomeRepository.addToDay(tenantId, date, expected, realized);
+        monthlyIncomeRepository.addToMonth(tenantId, date.withDayOfMonth(1), expected, realized);
+
+        log.debug("Income ledger updated for {}: expected {}, realized {}.", date, expected, realized);
+    }
+
+    private BigDecimal realizedPrice(Event event) {
+        return event.getEventStatus() == EventStatus.FINISHED ? event.getPrice() : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,84 @@
+package com.tutoring_calendar.services;
+
+/**
+ * A day as a bitmap of 5-minute slots, bit {@code i} of word {@code i / 64} set when slot {@code i}
+ * is taken. An event occupies every slot it touches. Searches scan whole words: a free or taken run
+ * of 64 slots costs one step.
+ */
+final class OccupancyBitmap {
+
+    static final int SLOT_MINUTES = 5;
+    static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    static final int WORDS = (SLOTS_PER_DAY + Long.SIZE - 1) / Long.SIZE;
+
+    private OccupancyBitmap() {
+    }
+
+    static long[] empty() {
+        return new long[WORDS];
+    }
+
+    /**
+     * Marks the slots touched by the minutes of the day from {@code startMinute} to {@code finishMinute}.
+     */
+    static void occupy(long[] bits, int startMinute, int finishMinute) {
+        int from = startMinute / SLOT_MINUTES;
+        int to = Math.min(SLOTS_PER_DAY, (finishMinute + SLOT_MINUTES - 1) / SLOT_MINUTES);
+        if (from >= to) {
+            return;
+        }
+
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        // Shift distances are taken modulo 64
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            bits[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        bits[firstWord] |= firstMask;
+        for (int word = firstWord + 1; word < lastWord; word++) {
+            bits[word] = -1L;
+        }
+        bits[lastWord] |= lastMask;
+    }
+
+    /**
+     * @return the first free slot from {@code from} on, or {@code limit} when there is none before it
+     */
+    static int nextFreeSlot(long[] bits, int from, int limit) {
+        return nextSlot(bits, from, limit, -1L);
+    }
+
+    /**
+     * @return the first taken slot from {@code from} on, or {@code limit} when there is none before it
+     */
+    static int nextTakenSlot(long[] bits, int from, int limit) {
+        return nextSlot(bits, from, limit, 0L);
+    }
+
+    static int minuteOf(int slot) {
+        return slot * SLOT_MINUTES;
+    }
+
+    static int slotStartingAtOrAfter(int minute) {
+        return (minute + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+
+    // Flipping the words with an all-ones mask looks for free slots instead of taken ones
+    private static int nextSlot(long[] bits, int from, int limit, long flip) {
+        if (from >= limit) {
+            return limit;
+        }
+        int word = from >>> 6;
+        long candidates = (bits[word] ^ flip) & (-1L << from);
+        while (candidates == 0) {
+            if (++word == WORDS) {
+                return limit;
+            }
+            candidates = bits[word] ^ flip;
+        }
+        return Math.min(limit, word * Long.SIZE + Long.numberOfTrailingZeros(candidates));
+    }
+}
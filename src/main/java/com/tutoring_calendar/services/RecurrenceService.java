@@ -0,0 +1,204 @@
+package com.tutoring_calendar.services;
+
+import com.tutoring_calendar.dto.SeriesOccurrence;
+import com.tutoring_calendar.enums.EventStatus;
+import com.tutoring_calendar.enums.RecurrenceMode;
+import com.tutoring_calendar.models.Event;
+import com.tutoring_calendar.repositories.EventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class RecurrenceService {
+
+    private final EventRepository eventRepository;
+    private final IncomeLedgerService incomeLedgerService;
+    private final EventIntervalIndex eventIntervalIndex;
+    private final WeekViewCache weekViewCache;
+    private final RecurrenceMode recurrenceMode;
+    private final Timer weekMaterializationTimer;
+    private final DistributionSummary weekMaterializationSize;
+    private final Counter dueMaterializationCounter;
+
+    public RecurrenceService(EventRepository eventRepository, IncomeLedgerService incomeLedgerService,
+                             EventIntervalIndex eventIntervalIndex, WeekViewCache weekViewCache,
+                             @Value("${calendar.recurrence.mode:MATERIALIZED}") RecurrenceMode recurrenceMode,
+                             MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.incomeLedgerService = incomeLedgerService;
+        this.eventIntervalIndex = eventIntervalIndex;
+        this.weekViewCache = weekViewCache;
+        this.recurrenceMode = recurrenceMode;
+        this.weekMaterializationTimer = Timer.builder("calendar.recurrences.materialize")
+                .description("Time to materialize the recurring events of a week")
+                .register(meterRegistry);
+        this.weekMaterializationSize = DistributionSummary.builder("calendar.recurrences.materialized")
+                .description("Recurring events materialized per week view")
+                .baseUnit("events")
+                .register(meterRegistry);
+        this.dueMaterializationCounter = Counter.builder("calendar.recurrences.materialized.due")
+                .description("Virtual occurrences materialized for settlement")
+                .register(meterRegistry);
+    }
+
+    public boolean isVirtual() {
+        return recurrenceMode == RecurrenceMode.VIRTUAL;
+    }
+
+    /**
+     * Returns the occurrences of repeatable series in the range that have no row yet, computed on the fly.
+     * Empty in materialized mode, where such occurrences are persisted by {@link #prepareWeek}.
+     */
+    public List<Event> findVirtualOccurrencesBetween(LocalDate firstDay, LocalDate lastDay) {
+        if (!isVirtual()) {
+            return List.of();
+        }
+        return projectMissingOccurrences(firstDay, lastDay);
+    }
+
+    /**
+     * Prepares a week for reading. In materialized mode the missing occurrences are persisted,
+     * in virtual mode this is a no-op.
+     */
+    @Transactional
+    public void prepareWeek(LocalDate startOfWeek, LocalDate endOfWeek) {
+        if (!isVirtual()) {
+            materializeWeek(startOfWeek, endOfWeek);
+        }
+    }
+
+    /**
+     * Persists the occurrences of every repeatable series that started before the given week and has
+     * no row in it yet. Works on sets: two queries to find what is missing and one batched insert.
+     *
+     * @return the number of occurrences created
+     */
+    @Transactional
+    public int materializeWeek(LocalDate startOfWeek, LocalDate endOfWeek) {
+        log.debug("Materializing recurring events for the week starting from: {}", startOfWeek);
+
+        Timer.Sample sample = Timer.start();
+        List<Event> missingOccurrences = projectMissingOccurrences(startOfWeek, endOfWeek);
+        eventRepository.saveAll(missingOccurrences);
+        incomeLedgerService.recordEventsAdded(missingOccurrences);
+        eventIntervalIndex.indexAll(missingOccurrences);
+        weekViewCache.evictDates(missingOccurrences.stream().map(Event::getDate).toList());
+        sample.stop(weekMaterializationTimer);
+        weekMaterializationSize.record(missingOccurrences.size());
+
+        log.info("Materialized {} recurring events for the week starting from {}.", missingOccurrences.size(), startOfWeek);
+        return missingOccurrences.size();
+    }
+
+    /**
+     * Persists the virtual occurrences that are already over, so that the settlement job can finish them.
+     * Everything since the day of the last settlement cutoff is looked at, however long ago that run was;
+     * without a settlement yet, since the start of the oldest series.
+     *
+     * @param lastCutoff the cutoff of the last settlement run, {@code null} when there was none
+     */
+    @Transactional
+    public int materializeDueOccurrences(LocalDateTime lastCutoff, LocalDateTime currentDateTime) {
+        LocalDate firstDay = lastCutoff != null ? lastCutoff.toLocalDate() : LocalDate.EPOCH;
+
+        List<Event> dueOccurrences = projectMissingOccurrences(firstDay, currentDateTime.toLocalDate()).stream()
+                .filter(occurrence -> occurrence.getDate().atTime(occurrence.getFinishTime()).isBefore(currentDateTime))
+                .toList();
+        eventRepository.saveAll(dueOccurrences);
+        incomeLedgerService.recordEventsAdded(dueOccurrences);
+        eventIntervalIndex.indexAll(dueOccurrences);
+        weekViewCache.evictDates(dueOccurrences.stream().map(Event::getDate).toList());
+        dueMaterializationCounter.increment(dueOccurrences.size());
+
+        log.debug("Materialized {} due recurring events since {}.", dueOccurrences.size(), firstDay);
+        return dueOccurrences.size();
+    }
+
+    /**
+     * Returns the persisted occurrence of the series in the week of the given date, or a new unsaved one
+     * built from the series. Used to turn a virtual occurrence into an exception row when it is edited.
+     */
+    public Optional<Event> findOrCreateOccurrence(Long seriesId, LocalDate date) {
+        LocalDate startOfWeek = date.with(DayOfWeek.MONDAY);
+        LocalDate endOfWeek = date.with(DayOfWeek.SUNDAY);
+
+        List<Event> persisted = eventRepository.findOccurrencesOfSeriesBetween(seriesId, startOfWeek, endOfWeek);
+        if (!persisted.isEmpty()) {
+            return Optional.of(persisted.get(0));
+        }
+
+        return eventRepository.findInTenant(seriesId)
+                .filter(series -> series.isRepeatable() && series.getId().equals(series.getOriginalId()))
+                .filter(series -> series.getDate().isBefore(startOfWeek))
+                .map(series -> createOccurrence(series, startOfWeek));
+    }
+
+    private List<Event> projectMissingOccurrences(LocalDate firstDay, LocalDate lastDay) {
+        LocalDate lastWeekStart = lastDay.with(DayOfWeek.MONDAY);
+
+        List<Event> series = eventRepository.findRepeatableSeriesStartedBefore(lastWeekStart);
+        if (series.isEmpty()) {
+            return List.of();
+        }
+
+        // No series has occurrences before its start, a long range is cut to the oldest one
+        LocalDate firstSeriesDay = series.stream().map(Event::getDate).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate firstWeekStart = (firstDay.isBefore(firstSeriesDay) ? firstSeriesDay : firstDay).with(DayOfWeek.MONDAY);
+
+        Set<SeriesWeek> materializedWeeks = eventRepository
+                .findSeriesOccurrencesBetween(firstWeekStart, lastDay.with(DayOfWeek.SUNDAY))
+                .stream()
+                .map(SeriesWeek::of)
+                .collect(Collectors.toSet());
+
+        List<Event> missingOccurrences = new ArrayList<>();
+        for (LocalDate startOfWeek = firstWeekStart; !startOfWeek.isAfter(lastWeekStart); startOfWeek = startOfWeek.plusWeeks(1)) {
+            for (Event originalEvent : series) {
+                if (!originalEvent.getDate().isBefore(startOfWeek)
+                        || materializedWeeks.contains(new SeriesWeek(originalEvent.getId(), startOfWeek))) {
+                    continue;
+                }
+
+                Event occurrence = createOccurrence(originalEvent, startOfWeek);
+                if (!occurrence.getDate().isBefore(firstDay) && !occurrence.getDate().isAfter(lastDay)) {
+                    missingOccurrences.add(occurrence);
+                }
+            }
+        }
+        return missingOccurrences;
+    }
+
+    private Event createOccurrence(Event originalEvent, LocalDate startOfWeek) {
+        Event occurrence = new Event(originalEvent);
+        occurrence.setId(null);
+        occurrence.setDate(startOfWeek.with(originalEvent.getDate().getDayOfWeek()));
+        occurrence.setOriginalId(originalEvent.getId());
+        occurrence.setEventStatus(EventStatus.CREATED);
+        occurrence.setRepeatable(false);
+        return occurrence;
+    }
+
+    private record SeriesWeek(Long seriesId, LocalDate startOfWeek) {
+
+        static SeriesWeek of(SeriesOccurrence occurrence) {
+            return new SeriesWeek(occurrence.getSeriesId(), occurrence.getDate().with(DayOfWeek.MONDAY));
+        }
+    }
+}
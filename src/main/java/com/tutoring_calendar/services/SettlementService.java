@@ -0,0 +1,231 @@
+package com.tutoring_calendar.services;
+
+import com.tutoring_calendar.dto.CalendarChange;
+import com.tutoring_calendar.dto.DueEvent;
+import com.tutoring_calendar.enums.ChangeType;
+import com.tutoring_calendar.enums.DepositTransactionType;
+import com.tutoring_calendar.enums.EventStatus;
+import com.tutoring_calendar.enums.SettlementStatus;
+import com.tutoring_calendar.models.SettlementCheckpoint;
+import com.tutoring_calendar.repositories.EventRepository;
+import com.tutoring_calendar.repositories.SettlementCheckpointRepository;
+import com.tutoring_calendar.tenancy.TenantContext;
+import com.tutoring_calendar.tenancy.TenantDirectory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Settles finished lessons: flips due {@code CREATED} events to {@code FINISHED} and debits their price
+ * from the clients' deposits. Works in chunks of due events, each chunk in its own transaction together
+ * with the checkpoint, so an interrupted run resumes where it stopped and with the same cutoff.
+ * A run settles the current tenant of {@link TenantContext}, every tenant has a checkpoint and a run lock
+ * of its own, so the cost of a run depends on that tenant's events only.
+ */
+@Service
+@Slf4j
+public class SettlementService {
+
+    private static final String JOB_NAME_PREFIX = "events:";
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+
+    private final EventRepository eventRepository;
+    private final DepositLedgerService depositLedgerService;
+    private final SettlementCheckpointRepository checkpointRepository;
+    private final IncomeLedgerService incomeLedgerService;
+    private final WeekViewCache weekViewCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TenantDirectory tenantDirectory;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Map<String, ReentrantLock> runLocks = new ConcurrentHashMap<>();
+    private final Timer runTimer;
+    private final Timer chunkTimer;
+    private final DistributionSummary chunkSizeSummary;
+    private final Counter chunkRetryCounter;
+
+    public SettlementService(EventRepository eventRepository, DepositLedgerService depositLedgerService,
+                             SettlementCheckpointRepository checkpointRepository, IncomeLedgerService incomeLedgerService,
+                             WeekViewCache weekViewCache, ApplicationEventPublisher eventPublisher,
+                             TenantDirectory tenantDirectory, PlatformTransactionManager transactionManager,
+                             @Value("${calendar.settlement.chunk-size:500}") int chunkSize,
+                             MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.depositLedgerService = depositLedgerService;
+        this.checkpointRepository = checkpointRepository;
+        this.incomeLedgerService = incomeLedgerService;
+        this.weekViewCache = weekViewCache;
+        this.eventPublisher = eventPublisher;
+        this.tenantDirectory = tenantDirectory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.runTimer = Timer.builder("calendar.settlement.run")
+                .description("Time to settle all due events")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("calendar.settlement.chunk")
+                .description("Time to settle one chunk of due events")
+                .register(meterRegistry);
+        this.chunkSizeSummary = DistributionSummary.builder("calendar.settlement.chunk.size")
+                .description("Events settled per chunk")
+                .baseUnit("events")
+                .register(meterRegistry);
+        this.chunkRetryCounter = Counter.builder("calendar.settlement.chunk.retries")
+                .description("Chunks retried because their events changed concurrently")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRun() {
+        tenantDirectory.forEachTenant(tenantId -> findRunningCheckpoint().ifPresent(checkpoint -> {
+            log.info("Resuming settlement run of tenant {} with cutoff {} after event ID {}.", tenantId,
+                    checkpoint.getCutoff(), checkpoint.getLastEventId());
+            runExclusively(() -> settle(checkpoint));
+        }));
+    }
+
+    /**
+     * Settles every event of the current tenant that finished before {@code cutoff}. An interrupted earlier
+     * run is completed first.
+     *
+     * @return the number of settled events
+     */
+    public int settleDueEvents(LocalDateTime cutoff) {
+        return runExclusively(() -> {
+            int settled = findRunningCheckpoint().map(this::settle).orElse(0);
+
+            SettlementCheckpoint checkpoint = checkpointRepository.save(
+                    new SettlementCheckpoint(jobName(), cutoff, 0L, SettlementStatus.RUNNING));
+            return settled + settle(checkpoint);
+        });
+    }
+
+    /**
+     * @return the cutoff of the current tenant's last settlement run, empty when it was never settled
+     */
+    public Optional<LocalDateTime> findLastCutoff() {
+        return checkpointRepository.findById(jobName()).map(SettlementCheckpoint::getCutoff);
+    }
+
+    private int runExclusively(IntSupplier run) {
+        ReentrantLock runLock = runLocks.computeIfAbsent(TenantContext.getTenantId(), tenantId -> new ReentrantLock());
+        if (!runLock.tryLock()) {
+            log.info("Settlement run of tenant {} is already in progress, skipping.", TenantContext.getTenantId());
+            return 0;
+        }
+        try {
+            return run.getAsInt();
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private Optional<SettlementCheckpoint> findRunningCheckpoint() {
+        return checkpointRepository.findById(jobName())
+                .filter(checkpoint -> checkpoint.getStatus() == SettlementStatus.RUNNING);
+    }
+
+    private static String jobName() {
+        return JOB_NAME_PREFIX + TenantContext.getTenantId();
+    }
+
+    private int settle(SettlementCheckpoint checkpoint) {
+        log.info("Settling events finished before {}.", checkpoint.getCutoff());
+
+        Timer.Sample sample = Timer.start();
+        int settled = 0;
+        int chunkCount;
+        do {
+            chunkCount = settleChunkWithRetry(checkpoint);
+            settled += chunkCount;
+        } while (chunkCount > 0);
+
+        checkpoint.setStatus(SettlementStatus.COMPLETED);
+        checkpointRepository.save(checkpoint);
+        sample.stop(runTimer);
+
+        log.info("Settled {} events finished before {}.", settled, checkpoint.getCutoff());
+        return settled;
+    }
+
+    private int settleChunkWithRetry(SettlementCheckpoint checkpoint) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                List<Long> settledIds = chunkTimer.record(() -> transactionTemplate.execute(status -> settleChunk(checkpoint)));
+                if (settledIds == null || settledIds.isEmpty()) {
+                    return 0;
+                }
+                chunkSizeSummary.record(settledIds.size());
+
+                checkpoint.setLastEventId(settledIds.get(settledIds.size() - 1));
+                return settledIds.size();
+            } catch (ConcurrentSettlementException e) {
+                chunkRetryCounter.increment();
+                if (attempt == MAX_CHUNK_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Events of the chunk after ID {} changed during settlement, retrying.", checkpoint.getLastEventId());
+            }
+        }
+    }
+
+    private List<Long> settleChunk(SettlementCheckpoint checkpoint) {
+        LocalDateTime cutoff = checkpoint.getCutoff();
+        List<DueEvent> dueEvents = eventRepository.findDueEvents(EventStatus.CREATED, checkpoint.getLastEventId(),
+                cutoff.toLocalDate(), cutoff.toLocalTime(), PageRequest.of(0, chunkSize));
+        if (dueEvents.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = dueEvents.stream().map(DueEvent::getId).toList();
+        int finished = eventRepository.finishEvents(ids, EventStatus.CREATED, EventStatus.FINISHED);
+        if (finished != ids.size()) {
+            // Some events were changed between the select and the update, roll back and reselect
+            throw new ConcurrentSettlementException();
+        }
+
+        // Negative amounts, the lessons are charged to the deposits
+        Map<Long, BigDecimal> debitByClient = dueEvents.stream()
+                .collect(Collectors.groupingBy(DueEvent::getClientId,
+                        Collectors.reducing(BigDecimal.ZERO, dueEvent -> dueEvent.getPrice().negate(), BigDecimal::add)));
+        depositLedgerService.postAll(debitByClient, DepositTransactionType.SETTLEMENT);
+
+        Map<LocalDate, BigDecimal> realizedByDate = dueEvents.stream()
+                .collect(Collectors.groupingBy(DueEvent::getDate, TreeMap::new,
+                        Collectors.reducing(BigDecimal.ZERO, DueEvent::getPrice, BigDecimal::add)));
+        incomeLedgerService.recordIncomeRealized(realizedByDate);
+        weekViewCache.evictDates(realizedByDate.keySet());
+        eventPublisher.publishEvent(CalendarChange.ofEvents(ChangeType.EVENTS_FINISHED, ids,
+                dueEvents.stream().map(DueEvent::getDate).toList(), List.copyOf(debitByClient.keySet())));
+
+        Long lastEventId = ids.get(ids.size() - 1);
+        checkpointRepository.save(new SettlementCheckpoint(checkpoint.getJobName(), cutoff, lastEventId, SettlementStatus.RUNNING));
+
+        log.debug("Settled {} events of {} clients, up to event ID {}.", ids.size(), debitByClient.size(), lastEventId);
+        return ids;
+    }
+
+    private static class ConcurrentSettlementException extends RuntimeException {
+    }
+}
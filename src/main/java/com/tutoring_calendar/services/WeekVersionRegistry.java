@@ -0,0 +1,107 @@
+package com.tutoring_calendar.services;
+
+import com.tutoring_calendar.tenancy.TenantContext;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version numbers of ISO weeks, bumped by {@link WeekViewCache} whenever it evicts. They make up the
+ * ETag of a week view, which can then be checked without reading anything from the database.
+ * Versions only live in memory, every start gets a new generation so ETags of an earlier run never match.
+ * The latest version of a tenant versions everything of it at once, e.g. the calendar feed. Versions are
+ * kept per tenant of {@link TenantContext}, they come from one sequence so they only ever grow.
+ */
+@Component
+public class WeekVersionRegistry {
+
+    private final String generation = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Versions> versionsByTenant = new ConcurrentHashMap<>();
+    private final long startedAt = System.currentTimeMillis();
+
+    public void bumpDate(LocalDate date) {
+        Versions versions = versions();
+        long version = versions.next();
+        versions.weekVersions.merge(date.with(DayOfWeek.MONDAY), version, Math::max);
+    }
+
+    public void bumpFrom(LocalDate date) {
+        Versions versions = versions();
+        synchronized (versions) {
+            long version = versions.next();
+            versions.seriesChanges.put(date, version);
+            versions.seriesChanges.tailMap(date, false).clear();
+        }
+    }
+
+    public void bumpAll() {
+        bumpFrom(LocalDate.MIN);
+    }
+
+    // Client names and statuses are part of every view, a rename or an archive changes all ETags of its tenant.
+    // Deposits are not shown in week views, changing one leaves the ETags alone
+    public void bumpClients() {
+        Versions versions = versions();
+        versions.clientsVersion = versions.next();
+    }
+
+    private Versions versions() {
+        return versionsByTenant.computeIfAbsent(TenantContext.getTenantId(), tenantId -> new Versions());
+    }
+
+    /**
+     * @return the strong ETag of the view that shows the events of {@code firstDay}..{@code lastDay}
+     * as seen on {@code today}
+     */
+    public String etag(LocalDate firstDay, LocalDate lastDay, LocalDate today) {
+        Versions versions = versions();
+        long version = 0;
+        for (LocalDate week = firstDay.with(DayOfWeek.MONDAY); !week.isAfter(lastDay); week = week.plusWeeks(1)) {
+            version = Math.max(version, versions.weekVersions.getOrDefault(week, 0L));
+        }
+        for (long seriesVersion : versions.seriesChanges.headMap(lastDay, true).values()) {
+            version = Math.max(version, seriesVersion);
+        }
+
+        return "\"" + generation + "-" + version + "-" + versions.clientsVersion + "-" + today.toEpochDay() + "\"";
+    }
+
+    /**
+     * @return the strong ETag of a view of all events that starts at {@code firstDay}, it changes with any bump
+     */
+    public String etag(LocalDate firstDay) {
+        return "\"" + generation + "-" + versions().latestVersion + "-" + firstDay.toEpochDay() + "\"";
+    }
+
+    /**
+     * @return the time of the last bump in epoch milliseconds, or the start of this instance
+     */
+    public long getLastModified() {
+        Versions versions = versionsByTenant.get(TenantContext.getTenantId());
+        return versions == null ? startedAt : versions.lastModified;
+    }
+
+    private class Versions {
+        private final Map<LocalDate, Long> weekVersions = new ConcurrentHashMap<>();
+        // Start dates of changed series with the version at the change. A change supersedes all changes at
+        // later dates, so the map stays as small as the number of distinct earlier start dates.
+        private final ConcurrentNavigableMap<LocalDate, Long> seriesChanges = new ConcurrentSkipListMap<>();
+        private volatile long clientsVersion;
+        private volatile long latestVersion;
+        private volatile long lastModified = startedAt;
+
+        private synchronized long next() {
+            lastModified = System.currentTimeMillis();
+            latestVersion = sequence.incrementAndGet();
+            return latestVersion;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.tutoring_calendar.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tutoring_calendar.dto.EventResponse;
+import com.tutoring_calendar.dto.WeekSnapshot;
+import com.tutoring_calendar.models.Event;
+import com.tutoring_calendar.tenancy.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Caches assembled week views. A view depends on the events of its week, the income of its month and
+ * the current day, so it is keyed by all three and evicted when any event in that range, a repeatable
+ * series before it or one of its clients changes. Evictions run immediately and again after the
+ * surrounding transaction commits, so a concurrent reader cannot put back a view read before the commit.
+ * Every eviction also bumps the versions in {@link WeekVersionRegistry}, views are cached together with
+ * their encoded JSON and the ETag they were read under. Views and evictions belong to the current tenant.
+ */
+@Component
+@Slf4j
+public class WeekViewCache {
+
+    public static final String CACHE_NAME = "weekViews";
+
+    private final Cache cache;
+    private final WeekVersionRegistry weekVersions;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public WeekViewCache(CacheManager cacheManager, WeekVersionRegistry weekVersions, ObjectMapper objectMapper) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+        this.weekVersions = weekVersions;
+        this.objectMapper = objectMapper;
+    }
+
+    public EventResponse get(LocalDate dateOfWeek, Supplier<EventResponse> loader) {
+        return getSnapshot(dateOfWeek, loader).response();
+    }
+
+    public WeekSnapshot getSnapshot(LocalDate dateOfWeek, Supplier<EventResponse> loader) {
+        LocalDate today = LocalDate.now();
+        WeekViewKey key = WeekViewKey.of(TenantContext.getTenantId(), dateOfWeek, today);
+        // Taken before loading, the loaded view is then at least as new as the ETag says
+        String etag = weekVersions.etag(key.firstDay(), key.lastDay(), today);
+
+        WeekSnapshot cached = cache.get(key, WeekSnapshot.class);
+        if (cached != null && cached.etag().equals(etag)) {
+            return cached;
+        }
+
+        // A view computed while something was evicted may already be stale, it is returned but not kept
+        long evictionsBefore = evictionCount.get();
+        EventResponse response = loader.get();
+        WeekSnapshot snapshot = new WeekSnapshot(response, encode(response), etag);
+        if (evictionCount.get() == evictionsBefore) {
+            cache.put(key, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return the ETag the view of the week of {@code dateOfWeek} currently has, without loading it
+     */
+    public String getEtag(LocalDate dateOfWeek) {
+        LocalDate today = LocalDate.now();
+        WeekViewKey key = WeekViewKey.of(TenantContext.getTenantId(), dateOfWeek, today);
+        return weekVersions.etag(key.firstDay(), key.lastDay(), today);
+    }
+
+    public void evictEvent(Event event) {
+        if (event.isRepeatable()) {
+            evictSeriesFrom(event.getDate());
+        } else {
+            evictDates(List.of(event.getDate()));
+        }
+    }
+
+    public void evictEventChange(Event previousState, Event currentState) {
+        if (previousState.isRepeatable() || currentState.isRepeatable()) {
+            LocalDate previousDate = previousState.getDate();
+            LocalDate currentDate = currentState.getDate();
+            evictSeriesFrom(previousDate.isBefore(currentDate) ? previousDate : currentDate);
+        } else {
+            evictDates(List.of(previousState.getDate(), currentState.getDate()));
+        }
+    }
+
+    public void evictDates(Collection<LocalDate> dates) {
+        if (!dates.isEmpty()) {
+            evict((key, response) -> dates.stream().anyMatch(key::covers), () -> dates.forEach(weekVersions::bumpDate));
+        }
+    }
+
+    /**
+     * Evicts every view a repeatable series starting at {@code date} can project occurrences into.
+     */
+    public void evictSeriesFrom(LocalDate date) {
+        evict((key, response) -> !key.lastDay().isBefore(date), () -> weekVersions.bumpFrom(date));
+    }
+
+    public void evictClients(Collection<Long> clientIds) {
+        if (!clientIds.isEmpty()) {
+            evict((key, response) -> clientIds.stream().anyMatch(response.getClients()::containsKey),
+                    weekVersions::bumpClients);
+        }
+    }
+
+    public void evictAll() {
+        evict((key, response) -> true, weekVersions::bumpAll);
+    }
+
+    private void evict(BiPredicate<WeekViewKey, EventResponse> predicate, Runnable bumpVersions) {
+        String tenantId = TenantContext.getTenantId();
+        BiPredicate<WeekViewKey, EventResponse> tenantPredicate =
+                (key, response) -> key.tenantId().equals(tenantId) && predicate.test(key, response);
+
+        evictNow(tenantPredicate, bumpVersions);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(tenantPredicate, bumpVersions);
+                }
+            });
+        }
+    }
+
+    private void evictNow(BiPredicate<WeekViewKey, EventResponse> predicate, Runnable bumpVersions) {
+        evictionCount.incrementAndGet();
+        bumpVersions.run();
+        if (cache instanceof CaffeineCache caffeineCache) {
+            caffeineCache.getNativeCache().asMap().entrySet().removeIf(entry ->
+                    predicate.test((WeekViewKey) entry.getKey(), ((WeekSnapshot) entry.getValue()).response()));
+        } else {
+            cache.clear();
+        }
+        log.debug("Week view cache evicted.");
+    }
+
+    private byte[] encode(EventResponse response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Week view could not be encoded.", e);
+        }
+    }
+
+    private record WeekViewKey(String tenantId, LocalDate startOfWeek, YearMonth month, LocalDate today) {
+
+        static WeekViewKey of(String tenantId, LocalDate dateOfWeek, LocalDate today) {
+            return new WeekViewKey(tenantId, dateOfWeek.with(DayOfWeek.MONDAY), YearMonth.from(dateOfWeek), today);
+        }
+
+        LocalDate firstDay() {
+            LocalDate firstDayOfMonth = month.atDay(1);
+            return startOfWeek.isBefore(firstDayOfMonth) ? startOfWeek : firstDayOfMonth;
+        }
+
+        LocalDate lastDay() {
+            LocalDate endOfWeek = startOfWeek.with(DayOfWeek.SUNDAY);
+            LocalDate lastDayOfMonth = month.atEndOfMonth();
+            return endOfWeek.isAfter(lastDayOfMonth) ? endOfWeek : lastDayOfMonth;
+        }
+
+        boolean covers(LocalDate date) {
+            return !date.isBefore(firstDay()) && !date.isAfter(lastDay());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.tutoring_calendar.services.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads lessons from CSV with a header line naming the columns {@code client}, {@code date},
+ * {@code start_time}, {@code finish_time} and optionally {@code price} and {@code repeatable}, in any order.
+ * Fields may be quoted, quoted fields cannot span lines.
+ */
+class CsvScheduleReader implements ScheduleReader {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("client", "date", "start_time", "finish_time");
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long lineNumber;
+    private String headerError;
+
+    CsvScheduleReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        readHeader();
+    }
+
+    private void readHeader() throws IOException {
+        String header = reader.readLine();
+        lineNumber++;
+        if (header == null) {
+            headerError = "Header line is missing";
+            return;
+        }
+        // A byte order mark is kept by the decoder
+        List<String> names = split(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        if (names == null) {
+            headerError = "Quoted field is not closed";
+            return;
+        }
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+        if (!missing.isEmpty()) {
+            headerError = "Header misses the columns " + String.join(", ", missing);
+        }
+    }
+
+    @Override
+    public ScheduleRecord next() throws IOException {
+        if (headerError != null) {
+            // Reported once, the rest of the file cannot be read without the columns
+            String error = headerError;
+            headerError = null;
+            columns.clear();
+            return ScheduleRecord.invalid(1, error);
+        }
+        if (columns.isEmpty()) {
+            return null;
+        }
+
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        List<String> fields = split(line);
+        if (fields == null) {
+            return ScheduleRecord.invalid(lineNumber, "Quoted field is not closed");
+        }
+        try {
+            String price = field(fields, "price");
+            String repeatable = field(fields, "repeatable");
+            return new ScheduleRecord(lineNumber, field(fields, "client"),
+                    price == null ? null : new BigDecimal(price),
+                    LocalDate.parse(required(fields, "date")),
+                    LocalTime.parse(required(fields, "start_time")),
+                    LocalTime.parse(required(fields, "finish_time")),
+                    Boolean.parseBoolean(repeatable), null, null, null);
+        } catch (DateTimeParseException e) {
+            return ScheduleRecord.invalid(lineNumber, "Invalid date or time " + e.getParsedString());
+        } catch (NumberFormatException e) {
+            return ScheduleRecord.invalid(lineNumber, "Invalid price");
+        } catch (IllegalArgumentException e) {
+            return ScheduleRecord.invalid(lineNumber, e.getMessage());
+        }
+    }
+
+    private String required(List<String> fields, String column) {
+        String value = field(fields, column);
+        if (value == null) {
+            throw new IllegalArgumentException("Column " + column + " is empty");
+        }
+        return value;
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * @return the fields of the line, or {@code null} when a quoted field is not closed
+     */
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,269 @@
+package com.tutoring_calendar.services.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads lessons from the VEVENTs of an iCalendar file. SUMMARY names the client, X-TUTORING-PRICE holds
+ * the price as written by the calendar feed. A VEVENT with an open-ended weekly RRULE is a series, one
+ * with RECURRENCE-ID changes an occurrence of the series with the same UID. Times in UTC or with a TZID
+ * are converted to the local time of this server, the calendar stores local times only.
+ */
+class IcsScheduleReader implements ScheduleReader {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final BufferedReader reader;
+    private long physicalLine;
+    private String lookahead;
+    private long lookaheadLine;
+    private long logicalLine;
+
+    IcsScheduleReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public ScheduleRecord next() throws IOException {
+        String line;
+        while ((line = readUnfolded()) != null) {
+            if (line.equalsIgnoreCase("BEGIN:VEVENT")) {
+                ScheduleRecord record = readEvent(logicalLine);
+                if (record != null) {
+                    return record;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the lesson, or {@code null} for a cancelled one
+     */
+    private ScheduleRecord readEvent(long startLine) throws IOException {
+        Map<String, Property> properties = new HashMap<>();
+        // Nested components such as VALARM have properties of their own, they are skipped
+        int depth = 0;
+        String line;
+        while ((line = readUnfolded()) != null) {
+            Property property = Property.parse(line);
+            if (property == null) {
+                continue;
+            }
+            if (property.name.equals("BEGIN")) {
+                depth++;
+            } else if (property.name.equals("END")) {
+                if (depth == 0) {
+                    return toRecord(startLine, properties);
+                }
+                depth--;
+            } else if (depth == 0) {
+                properties.putIfAbsent(property.name, property);
+            }
+        }
+        return ScheduleRecord.invalid(startLine, "VEVENT is not closed");
+    }
+
+    private ScheduleRecord toRecord(long line, Map<String, Property> properties) {
+        Property status = properties.get("STATUS");
+        if (status != null && status.value.equalsIgnoreCase("CANCELLED")) {
+            return null;
+        }
+
+        Property summary = properties.get("SUMMARY");
+        if (summary == null || summary.value.isBlank()) {
+            return ScheduleRecord.invalid(line, "SUMMARY with the client name is missing");
+        }
+        Property start = properties.get("DTSTART");
+        if (start == null) {
+            return ScheduleRecord.invalid(line, "DTSTART is missing");
+        }
+
+        try {
+            LocalDateTime startTime = dateTime(start);
+            LocalDateTime finishTime;
+            Property end = properties.get("DTEND");
+            Property duration = properties.get("DURATION");
+            if (end != null) {
+                finishTime = dateTime(end);
+            } else if (duration != null) {
+                finishTime = startTime.plus(Duration.parse(duration.value));
+            } else {
+                return ScheduleRecord.invalid(line, "DTEND or DURATION is missing");
+            }
+            if (!finishTime.toLocalDate().equals(startTime.toLocalDate())) {
+                return ScheduleRecord.invalid(line, "Lessons spanning midnight are not supported");
+            }
+
+            Property price = properties.get("X-TUTORING-PRICE");
+            Property uid = properties.get("UID");
+            Property rule = properties.get("RRULE");
+            Property recurrenceId = properties.get("RECURRENCE-ID");
+            if (rule != null && !isOpenEndedWeekly(rule.value, startTime.getDayOfWeek())) {
+                return ScheduleRecord.invalid(line, "Only open-ended weekly rules are supported, got " + rule.value);
+            }
+
+            return new ScheduleRecord(line, unescape(summary.value).trim(),
+                    price == null ? null : new BigDecimal(price.value.trim()),
+                    startTime.toLocalDate(), startTime.toLocalTime(), finishTime.toLocalTime(),
+                    rule != null && recurrenceId == null,
+                    uid == null ? null : uid.value,
+                    recurrenceId == null || uid == null ? null : uid.value, null);
+        } catch (DateTimeException e) {
+            return ScheduleRecord.invalid(line, "Invalid date or time: " + e.getMessage());
+        } catch (NumberFormatException e) {
+            return ScheduleRecord.invalid(line, "Invalid X-TUTORING-PRICE");
+        } catch (IllegalArgumentException e) {
+            return ScheduleRecord.invalid(line, e.getMessage());
+        }
+    }
+
+    private static LocalDateTime dateTime(Property property) {
+        String value = property.value.trim();
+        if ("DATE".equalsIgnoreCase(property.params.get("VALUE")) || value.length() == 8) {
+            throw new IllegalArgumentException("All-day events are not supported");
+        }
+        if (value.endsWith("Z")) {
+            return LocalDateTime.parse(value.substring(0, value.length() - 1), DATE_TIME)
+                    .atOffset(ZoneOffset.UTC)
+                    .atZoneSameInstant(ZoneId.systemDefault())
+                    .toLocalDateTime();
+        }
+
+        LocalDateTime dateTime = LocalDateTime.parse(value, DATE_TIME);
+        String timeZone = property.params.get("TZID");
+        if (timeZone == null) {
+            return dateTime;
+        }
+        try {
+            return dateTime.atZone(ZoneId.of(timeZone)).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } catch (DateTimeException e) {
+            // Time zones defined by a VTIMEZONE of the file are not known here, the time is taken as it is
+            return dateTime;
+        }
+    }
+
+    private static boolean isOpenEndedWeekly(String rule, DayOfWeek dayOfWeek) {
+        boolean weekly = false;
+        for (String part : rule.toUpperCase(Locale.ROOT).split(";")) {
+            int separator = part.indexOf('=');
+            String name = separator < 0 ? part : part.substring(0, separator);
+            String value = separator < 0 ? "" : part.substring(separator + 1);
+            switch (name) {
+                case "FREQ" -> weekly = value.equals("WEEKLY");
+                case "INTERVAL" -> {
+                    if (!value.equals("1")) {
+                        return false;
+                    }
+                }
+                case "BYDAY" -> {
+                    if (!value.equals(dayOfWeek.name().substring(0, 2))) {
+                        return false;
+                    }
+                }
+                case "WKST" -> { }
+                default -> {
+                    return false;
+                }
+            }
+        }
+        return weekly;
+    }
+
+    private static String unescape(String value) {
+        StringBuilder unescaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char escaped = value.charAt(++i);
+                unescaped.append(escaped == 'n' || escaped == 'N' ? ' ' : escaped);
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+
+    // Joins folded lines, a line starting with a space or tab continues the previous one
+    private String readUnfolded() throws IOException {
+        String line;
+        long startLine;
+        if (lookahead != null) {
+            line = lookahead;
+            startLine = lookaheadLine;
+            lookahead = null;
+        } else {
+            line = readPhysical();
+            startLine = physicalLine;
+        }
+        if (line == null) {
+            return null;
+        }
+
+        StringBuilder unfolded = null;
+        String next;
+        while ((next = readPhysical()) != null && !next.isEmpty() && (next.charAt(0) == ' ' || next.charAt(0) == '\t')) {
+            if (unfolded == null) {
+                unfolded = new StringBuilder(line);
+            }
+            unfolded.append(next, 1, next.length());
+        }
+        lookahead = next;
+        lookaheadLine = physicalLine;
+        logicalLine = startLine;
+        return unfolded == null ? line : unfolded.toString();
+    }
+
+    private String readPhysical() throws IOException {
+        String line = reader.readLine();
+        if (line != null) {
+            physicalLine++;
+        }
+        return line;
+    }
+
+    private record Property(String name, Map<String, String> params, String value) {
+
+        /**
+         * @return the property of a content line, or {@code null} for a line without a value
+         */
+        static Property parse(String line) {
+            int valueStart = -1;
+            boolean quoted = false;
+            for (int i = 0; i < line.length() && valueStart < 0; i++) {
+                char c = line.charAt(i);
+                if (c == '"') {
+                    quoted = !quoted;
+                } else if (c == ':' && !quoted) {
+                    valueStart = i;
+                }
+            }
+            if (valueStart < 0) {
+                return null;
+            }
+
+            String[] nameAndParams = line.substring(0, valueStart).split(";");
+            Map<String, String> params = new HashMap<>();
+            for (int i = 1; i < nameAndParams.length; i++) {
+                int separator = nameAndParams[i].indexOf('=');
+                if (separator > 0) {
+                    params.put(nameAndParams[i].substring(0, separator).toUpperCase(Locale.ROOT),
+                            nameAndParams[i].substring(separator + 1).replace("\"", ""));
+                }
+            }
+            return new Property(nameAndParams[0].toUpperCase(Locale.ROOT), params, line.substring(valueStart + 1));
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.tutoring_calendar.services.imports;
+
+import com.tutoring_calendar.dto.EventBatchItemResult;
+import com.tutoring_calendar.dto.ImportJobStatus;
+import com.tutoring_calendar.dto.ImportLineError;
+import com.tutoring_calendar.enums.ImportFormat;
+import com.tutoring_calendar.enums.ImportStatus;
+import com.tutoring_calendar.models.Client;
+import com.tutoring_calendar.models.Event;
+import com.tutoring_calendar.services.EventService;
+import com.tutoring_calendar.tenancy.TenantContext;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Imports lessons from uploaded iCalendar or CSV files in the background. The file is read record by
+ * record and the lessons go to {@link EventService#addEvents} in chunks, each chunk in its own transaction
+ * with its clients resolved at once, so memory stays bounded by the chunk size whatever the file size,
+ * plus the changed occurrences that come before their series.
+ * Lessons that fail are reported with their line, the first {@code max-errors} of them are kept.
+ * A job that fails on the way keeps the chunks it already imported. Jobs import into, and are only
+ * visible to, the tenant that submitted them.
+ */
+@Service
+@Slf4j
+public class ImportService {
+
+    private final EventService eventService;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final int retainedJobs;
+    private final ExecutorService importer;
+    private final Map<String, ImportJob> jobs = new LinkedHashMap<>();
+
+    public ImportService(EventService eventService,
+                         @Value("${calendar.imports.chunk-size:500}") int chunkSize,
+                         @Value("${calendar.imports.max-errors:1000}") int maxErrors,
+                         @Value("${calendar.imports.retained-jobs:100}") int retainedJobs,
+                         @Value("${calendar.imports.threads:1}") int importThreads) {
+        this.eventService = eventService;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.retainedJobs = retainedJobs;
+        this.importer = Executors.newFixedThreadPool(importThreads, new CustomizableThreadFactory("import-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importer.shutdownNow();
+    }
+
+    /**
+     * Queues the import of {@code file}, which the job owns from now on and deletes when done.
+     * Lessons without a price of their own get {@code defaultPrice}.
+     */
+    public ImportJobStatus submit(String fileName, Path file, ImportFormat format, BigDecimal defaultPrice) throws IOException {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), TenantContext.getTenantId(), fileName, format,
+                Files.size(file));
+        synchronized (jobs) {
+            removeFinishedJobs();
+            jobs.put(job.id, job);
+        }
+
+        log.info("Queued import {} of {} ({} bytes).", job.id, fileName, job.bytesTotal);
+        importer.execute(() -> TenantContext.runAs(job.tenantId, () -> run(job, file, defaultPrice)));
+        return job.toStatus();
+    }
+
+    public Optional<ImportJobStatus> getStatus(String id) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(id))
+                    .filter(job -> job.tenantId.equals(TenantContext.getTenantId()))
+                    .map(ImportJob::toStatus);
+        }
+    }
+
+    // Finished jobs are forgotten oldest first, running and queued ones are always kept
+    private void removeFinishedJobs() {
+        Iterator<ImportJob> iterator = jobs.values().iterator();
+        while (jobs.size() >= retainedJobs && iterator.hasNext()) {
+            if (iterator.next().finishedAt != null) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void run(ImportJob job, Path file, BigDecimal defaultPrice) {
+        job.status = ImportStatus.RUNNING;
+        log.info("Starting import {}.", job.id);
+
+        try (InputStream in = new CountingInputStream(Files.newInputStream(file), job.bytesRead);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            ScheduleReader records = job.format == ImportFormat.CSV ? new CsvScheduleReader(reader) : new IcsScheduleReader(reader);
+            new ChunkedImport(job, defaultPrice).run(records);
+            job.finish(ImportStatus.COMPLETED, null);
+            log.info("Import {} completed, {} events created and {} failed.", job.id, job.created.get(), job.failed.get());
+        } catch (IOException | RuntimeException e) {
+            log.error("Import {} failed after {} events.", job.id, job.created.get(), e);
+            job.finish(ImportStatus.FAILED, e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete import file {}.", file, e);
+            }
+        }
+    }
+
+    /**
+     * Collects records into chunks. A series is known by its UID once its chunk is imported; a changed
+     * occurrence of a series still in the current chunk imports that chunk first to learn the series ID.
+     * A changed occurrence that comes before its series in the file waits until the whole file is read,
+     * one whose series never comes is imported as a lesson of its own.
+     */
+    private class ChunkedImport {
+
+        private final ImportJob job;
+        private final BigDecimal defaultPrice;
+        private final List<ScheduleRecord> chunkRecords = new ArrayList<>(chunkSize);
+        private final List<Event> chunkEvents = new ArrayList<>(chunkSize);
+        private final Set<String> chunkSeriesUids = new HashSet<>();
+        private final Map<String, Long> seriesIds = new HashMap<>();
+        private final List<ScheduleRecord> earlyOverrides = new ArrayList<>();
+
+        ChunkedImport(ImportJob job, BigDecimal defaultPrice) {
+            this.job = job;
+            this.defaultPrice = defaultPrice;
+        }
+
+        void run(ScheduleReader records) throws IOException {
+            ScheduleRecord record;
+            while ((record = records.next()) != null) {
+                if (record.error() != null) {
+                    job.fail(record.line(), record.error());
+                } else if (record.seriesUid() != null && !seriesIds.containsKey(record.seriesUid())
+                        && !chunkSeriesUids.contains(record.seriesUid())) {
+                    earlyOverrides.add(record);
+                } else {
+                    add(record);
+                }
+            }
+            importChunk();
+
+            earlyOverrides.forEach(this::add);
+            importChunk();
+        }
+
+        private void add(ScheduleRecord record) {
+            if (record.seriesUid() != null && chunkSeriesUids.contains(record.seriesUid())) {
+                importChunk();
+            }
+
+            Long originalId = record.seriesUid() == null ? null : seriesIds.get(record.seriesUid());
+            chunkRecords.add(record);
+            chunkEvents.add(new Event(null, new Client(null, record.clientName(), null, null),
+                    record.price() != null ? record.price() : defaultPrice, record.date(),
+                    record.startTime(), record.finishTime(), record.repeatable(), null, originalId));
+            if (record.repeatable() && record.uid() != null) {
+                chunkSeriesUids.add(record.uid());
+            }
+            if (chunkEvents.size() == chunkSize) {
+                importChunk();
+            }
+        }
+
+        private void importChunk() {
+            if (chunkEvents.isEmpty()) {
+                return;
+            }
+
+            List<EventBatchItemResult> results = eventService.addEvents(chunkEvents);
+            for (EventBatchItemResult result : results) {
+                ScheduleRecord record = chunkRecords.get(result.getIndex());
+                if (!result.isCreated()) {
+                    job.fail(record.line(), result.getError());
+                } else {
+                    job.created.incrementAndGet();
+                    if (record.repeatable() && record.uid() != null) {
+                        seriesIds.put(record.uid(), result.getId());
+                    }
+                }
+            }
+            log.debug("Import {} at {} of {} bytes, {} events created.", job.id, job.bytesRead.get(), job.bytesTotal, job.created.get());
+
+            chunkRecords.clear();
+            chunkEvents.clear();
+            chunkSeriesUids.clear();
+        }
+    }
+
+    private class ImportJob {
+
+        private final String id;
+        private final String tenantId;
+        private final String fileName;
+        private final ImportFormat format;
+        private final long bytesTotal;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final AtomicLong bytesRead = new AtomicLong();
+        private final AtomicLong created = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<ImportLineError> errors = new ArrayList<>();
+        private volatile ImportStatus status = ImportStatus.QUEUED;
+        private volatile String failure;
+        private volatile LocalDateTime finishedAt;
+
+        ImportJob(String id, String tenantId, String fileName, ImportFormat format, long bytesTotal) {
+            this.id = id;
+            this.tenantId = tenantId;
+            this.fileName = fileName;
+            this.format = format;
+            this.bytesTotal = bytesTotal;
+        }
+
+        void fail(long line, String error) {
+            synchronized (errors) {
+                failed.incrementAndGet();
+                if (errors.size() < maxErrors) {
+                    errors.add(new ImportLineError(line, error));
+                }
+            }
+        }
+
+        void finish(ImportStatus finalStatus, String failureMessage) {
+            failure = failureMessage;
+            status = finalStatus;
+            finishedAt = LocalDateTime.now();
+        }
+
+        ImportJobStatus toStatus() {
+            List<ImportLineError> errorsSoFar;
+            long failedSoFar;
+            synchronized (errors) {
+                errorsSoFar = List.copyOf(errors);
+                failedSoFar = failed.get();
+            }
+            return new ImportJobStatus(id, fileName, format, status, bytesRead.get(), bytesTotal, created.get(),
+                    failedSoFar, errorsSoFar, failedSoFar > errorsSoFar.size(), failure, submittedAt, finishedAt);
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong count;
+
+        CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
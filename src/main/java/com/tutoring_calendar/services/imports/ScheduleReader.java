@@ -0,0 +1,14 @@
+package com.tutoring_calendar.services.imports;
+
+import java.io.IOException;
+
+/**
+ * Reads the lessons of an import file one at a time, holding no more than the current lesson.
+ */
+interface ScheduleReader {
+
+    /**
+     * @return the next lesson, or {@code null} at the end of the file
+     */
+    ScheduleRecord next() throws IOException;
+}
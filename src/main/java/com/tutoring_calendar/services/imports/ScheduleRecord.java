@@ -0,0 +1,17 @@
+package com.tutoring_calendar.services.imports;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One lesson read from an import file. A record that could not be parsed only carries its line and
+ * the error. {@code uid} names a series other records refer to by {@code seriesUid}.
+ */
+record ScheduleRecord(long line, String clientName, BigDecimal price, LocalDate date, LocalTime startTime,
+                      LocalTime finishTime, boolean repeatable, String uid, String seriesUid, String error) {
+
+    static ScheduleRecord invalid(long line, String error) {
+        return new ScheduleRecord(line, null, null, null, null, null, false, null, null, error);
+    }
+}
@@ -0,0 +1,67 @@
+package com.tutoring_calendar.tenancy;
+
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * The tenant, i.e. the tutor, the current thread works for. Requests name it in {@code X-Tenant-Id},
+ * see {@link TenantFilter}; background jobs switch to each tenant in turn. Without a tenant the
+ * default one is used, which owns all data created before there were tenants.
+ */
+public final class TenantContext {
+
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+    public static final String DEFAULT_TENANT = "default";
+
+    private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final ThreadLocal<String> CURRENT_TENANT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String getTenantId() {
+        String tenantId = CURRENT_TENANT.get();
+        return tenantId != null ? tenantId : DEFAULT_TENANT;
+    }
+
+    /**
+     * @return the tenant named by a request header, the default one when there is none, or {@code null}
+     * when the header is not a valid tenant ID
+     */
+    public static String fromHeader(String header) {
+        if (header == null || header.isBlank()) {
+            return DEFAULT_TENANT;
+        }
+        return TENANT_ID.matcher(header).matches() ? header : null;
+    }
+
+    // Set for a whole request by TenantFilter, everything else goes through runAs and callAs
+    static void set(String tenantId) {
+        CURRENT_TENANT.set(tenantId);
+    }
+
+    static void clear() {
+        CURRENT_TENANT.remove();
+    }
+
+    public static void runAs(String tenantId, Runnable task) {
+        callAs(tenantId, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public static <T> T callAs(String tenantId, Supplier<T> task) {
+        String previousTenantId = CURRENT_TENANT.get();
+        CURRENT_TENANT.set(tenantId);
+        try {
+            return task.get();
+        } finally {
+            if (previousTenantId != null) {
+                CURRENT_TENANT.set(previousTenantId);
+            } else {
+                CURRENT_TENANT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.tutoring_calendar.tenancy;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Lists the tenants that have data, for jobs that work through all of them one tenant at a time.
+ * Every event belongs to a client of its tenant, so the tenants of the clients are all there are.
+ */
+@Component
+public class TenantDirectory {
+
+    // Plain SQL, the queries of the entities only ever see the current tenant
+    private static final String SELECT_TENANTS_SQL = "SELECT DISTINCT tenant_id FROM clients ORDER BY tenant_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TenantDirectory(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<String> findTenantIds() {
+        return jdbcTemplate.queryForList(SELECT_TENANTS_SQL, String.class);
+    }
+
+    /**
+     * Runs {@code task} once per tenant with the tenant set in {@link TenantContext}.
+     */
+    public void forEachTenant(Consumer<String> task) {
+        for (String tenantId : findTenantIds()) {
+            TenantContext.runAs(tenantId, () -> task.accept(tenantId));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.tutoring_calendar.tenancy;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Runs the request as the tenant named in {@code X-Tenant-Id}, a malformed tenant ID is rejected with 400.
+ * Comes before the persistence context of the request is opened, Hibernate takes the tenant of a
+ * session when the session starts.
+ * <p>
+ * The header is not authenticated: any caller can name any tenant and act as that tutor. It separates
+ * the data of tutors, it does not protect it; until requests are authenticated the API must only be
+ * reachable by trusted callers.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class TenantFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String tenantId = TenantContext.fromHeader(request.getHeader(TenantContext.TENANT_HEADER));
+        if (tenantId == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid " + TenantContext.TENANT_HEADER);
+            return;
+        }
+
+        TenantContext.set(tenantId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+CREATE TABLE IF NOT EXISTS clients (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    full_name VARCHAR(255),
+    deposit   NUMERIC(38, 2),
+    status    TINYINT
+);
+
+CREATE TABLE IF NOT EXISTS events (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    client_id   BIGINT  NOT NULL,
+    price       NUMERIC(38, 2),
+    date        DATE,
+    start_time  TIME,
+    finish_time TIME,
+    repeatable  BOOLEAN NOT NULL,
+    status      TINYINT,
+    original_id BIGINT,
+    CONSTRAINT fk_events_client FOREIGN KEY (client_id) REFERENCES clients (id)
+);
+
+CREATE TABLE IF NOT EXISTS income_daily (
+    income_date     DATE           NOT NULL PRIMARY KEY,
+    expected_income NUMERIC(38, 2) NOT NULL,
+    realized_income NUMERIC(38, 2) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS income_monthly (
+    month_start     DATE           NOT NULL PRIMARY KEY,
+    expected_income NUMERIC(38, 2) NOT NULL,
+    realized_income NUMERIC(38, 2) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS settlement_checkpoints (
+    job_name      VARCHAR(255) NOT NULL PRIMARY KEY,
+    cutoff        TIMESTAMP(6) NOT NULL,
+    last_event_id BIGINT       NOT NULL,
+    status        TINYINT      NOT NULL
+);
@@ -0,0 +1,12 @@
+CREATE UNIQUE INDEX ux_clients_full_name ON clients (full_name);
+
+-- findAllByDateRange, findSeriesOccurrencesBetween
+CREATE INDEX ix_events_date_original_id ON events (date, original_id);
+-- findOccurrencesOfSeriesBetween
+CREATE INDEX ix_events_original_id_date ON events (original_id, date);
+-- findRepeatableSeriesStartedBefore
+CREATE INDEX ix_events_repeatable_date ON events (repeatable, date);
+-- findAllByClient
+CREATE INDEX ix_events_client_id_status ON events (client_id, status);
+-- findDueEvents
+CREATE INDEX ix_events_status_date ON events (status, date);
@@ -0,0 +1,2 @@
+CREATE SEQUENCE events_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE clients_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,16 @@
+-- Optimistic lock version of a client row, incremented by every deposit change
+ALTER TABLE clients ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+
+-- Append-only history of deposit changes, clients.deposit stays the current balance. No foreign key,
+-- the history is kept even when a client row is removed.
+CREATE TABLE deposit_transactions (
+    id         BIGINT         NOT NULL PRIMARY KEY,
+    client_id  BIGINT         NOT NULL,
+    amount     NUMERIC(38, 2) NOT NULL,
+    type       TINYINT        NOT NULL,
+    created_at TIMESTAMP(6)   NOT NULL
+);
+
+CREATE INDEX ix_deposit_transactions_client_id ON deposit_transactions (client_id, id);
+
+CREATE SEQUENCE deposit_transactions_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,31 @@
+ALTER TABLE clients ADD COLUMN tenant_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+ALTER TABLE events ADD COLUMN tenant_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+ALTER TABLE deposit_transactions ADD COLUMN tenant_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+ALTER TABLE income_daily ADD COLUMN tenant_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+ALTER TABLE income_monthly ADD COLUMN tenant_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+
+CREATE UNIQUE INDEX ux_clients_tenant_full_name ON clients (tenant_id, full_name);
+DROP INDEX ux_clients_full_name;
+CREATE INDEX ix_clients_tenant_status_full_name ON clients (tenant_id, status, full_name);
+DROP INDEX ix_clients_status_full_name;
+
+-- findViewsByDateRange, findSeriesOccurrencesBetween
+CREATE INDEX ix_events_tenant_date_original_id ON events (tenant_id, date, original_id);
+DROP INDEX ix_events_date_original_id;
+-- findRepeatableSeriesStartedBefore
+CREATE INDEX ix_events_tenant_repeatable_date ON events (tenant_id, repeatable, date);
+DROP INDEX ix_events_repeatable_date;
+-- findDueEvents
+CREATE INDEX ix_events_tenant_status_date ON events (tenant_id, status, date);
+DROP INDEX ix_events_status_date;
+-- Keyset pagination over (date, id)
+CREATE INDEX ix_events_tenant_date_id ON events (tenant_id, date, id);
+DROP INDEX ix_events_date_id;
+
+ALTER TABLE income_daily DROP PRIMARY KEY;
+ALTER TABLE income_daily ADD PRIMARY KEY (tenant_id, income_date);
+ALTER TABLE income_monthly DROP PRIMARY KEY;
+ALTER TABLE income_monthly ADD PRIMARY KEY (tenant_id, month_start);
+
+-- Settlement runs per tenant, a run of the single job so far continues as the default tenant's
+UPDATE settlement_checkpoints SET job_name = 'events:default' WHERE job_name = 'events';
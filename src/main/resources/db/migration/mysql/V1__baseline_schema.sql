@@ -0,0 +1,45 @@
+-- Schema as previously created by ddl-auto=update. IF NOT EXISTS keeps it a no-op on existing databases.
+
+CREATE TABLE IF NOT EXISTS clients (
+    id        BIGINT NOT NULL AUTO_INCREMENT,
+    full_name VARCHAR(255),
+    deposit   DECIMAL(38, 2),
+    status    TINYINT,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS events (
+    id          BIGINT NOT NULL AUTO_INCREMENT,
+    client_id   BIGINT NOT NULL,
+    price       DECIMAL(38, 2),
+    date        DATE,
+    start_time  TIME,
+    finish_time TIME,
+    repeatable  BIT    NOT NULL,
+    status      TINYINT,
+    original_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_events_client FOREIGN KEY (client_id) REFERENCES clients (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS income_daily (
+    income_date     DATE           NOT NULL,
+    expected_income DECIMAL(38, 2) NOT NULL,
+    realized_income DECIMAL(38, 2) NOT NULL,
+    PRIMARY KEY (income_date)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS income_monthly (
+    month_start     DATE           NOT NULL,
+    expected_income DECIMAL(38, 2) NOT NULL,
+    realized_income DECIMAL(38, 2) NOT NULL,
+    PRIMARY KEY (month_start)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS settlement_checkpoints (
+    job_name      VARCHAR(255) NOT NULL,
+    cutoff        DATETIME(6)  NOT NULL,
+    last_event_id BIGINT       NOT NULL,
+    status        TINYINT      NOT NULL,
+    PRIMARY KEY (job_name)
+) ENGINE = InnoDB;
@@ -0,0 +1,33 @@
+-- Concurrent create-event requests could create the same client twice. Merge such duplicates into
+-- the oldest row before the full name becomes unique.
+
+UPDATE clients c
+    JOIN (SELECT full_name, MIN(id) AS keep_id, SUM(deposit) AS total_deposit
+          FROM clients
+          GROUP BY full_name
+          HAVING COUNT(*) > 1) k ON k.keep_id = c.id
+SET c.deposit = k.total_deposit;
+
+UPDATE events e
+    JOIN clients c ON c.id = e.client_id
+    JOIN (SELECT full_name, MIN(id) AS keep_id FROM clients GROUP BY full_name) k ON k.full_name = c.full_name
+SET e.client_id = k.keep_id
+WHERE e.client_id <> k.keep_id;
+
+DELETE c
+FROM clients c
+    JOIN (SELECT full_name, MIN(id) AS keep_id FROM clients GROUP BY full_name) k ON k.full_name = c.full_name
+WHERE c.id <> k.keep_id;
+
+CREATE UNIQUE INDEX ux_clients_full_name ON clients (full_name);
+
+-- findAllByDateRange, findSeriesOccurrencesBetween
+CREATE INDEX ix_events_date_original_id ON events (date, original_id);
+-- findOccurrencesOfSeriesBetween
+CREATE INDEX ix_events_original_id_date ON events (original_id, date);
+-- findRepeatableSeriesStartedBefore
+CREATE INDEX ix_events_repeatable_date ON events (repeatable, date);
+-- findAllByClient
+CREATE INDEX ix_events_client_id_status ON events (client_id, status);
+-- findDueEvents
+CREATE INDEX ix_events_status_date ON events (status, date);
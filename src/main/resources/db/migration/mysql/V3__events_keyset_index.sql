@@ -0,0 +1,2 @@
+-- Keyset pagination over (date, id)
+CREATE INDEX ix_events_date_id ON events (date, id);
@@ -0,0 +1,11 @@
+-- Hibernate emulates sequences with single-row tables on MySQL. Ids are handed out in blocks of 50,
+-- a block ends at the stored value, so it is seeded one block past the highest existing id.
+CREATE TABLE events_seq (
+    next_val BIGINT
+);
+INSERT INTO events_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM events;
+
+CREATE TABLE clients_seq (
+    next_val BIGINT
+);
+INSERT INTO clients_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM clients;
@@ -0,0 +1,2 @@
+-- Active client listing filters on status and sorts by name
+CREATE INDEX ix_clients_status_full_name ON clients (status, full_name);
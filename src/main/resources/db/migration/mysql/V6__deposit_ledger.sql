@@ -0,0 +1,24 @@
+-- Optimistic lock version of a client row, incremented by every deposit change
+ALTER TABLE clients ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Append-only history of deposit changes, clients.deposit stays the current balance. No foreign key,
+-- the history is kept even when a client row is removed.
+CREATE TABLE deposit_transactions (
+    id         BIGINT         NOT NULL,
+    client_id  BIGINT         NOT NULL,
+    amount     DECIMAL(38, 2) NOT NULL,
+    type       TINYINT        NOT NULL,
+    created_at TIMESTAMP(6)   NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX ix_deposit_transactions_client_id ON deposit_transactions (client_id, id);
+
+-- Opening balances, so that the history of every client adds up to its deposit
+INSERT INTO deposit_transactions (id, client_id, amount, type, created_at)
+SELECT id, id, deposit, 0, CURRENT_TIMESTAMP(6) FROM clients WHERE deposit IS NOT NULL AND deposit <> 0;
+
+CREATE TABLE deposit_transactions_seq (
+    next_val BIGINT
+);
+INSERT INTO deposit_transactions_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM deposit_transactions;
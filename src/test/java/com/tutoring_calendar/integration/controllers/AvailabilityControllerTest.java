@@ -0,0 +1,88 @@
+package com.tutoring_calendar.integration.controllers;
+
+import com.tutoring_calendar.TutoringCalendarApplication;
+import com.tutoring_calendar.models.Client;
+import com.tutoring_calendar.models.Event;
+import com.tutoring_calendar.repositories.ClientRepository;
+import com.tutoring_calendar.services.EventService;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        classes = TutoringCalendarApplication.class
+)
+@AutoConfigureMockMvc
+class AvailabilityControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Test
+    void givenEventOnDay_whenGetAvailability_thenFreeStretchesAroundIt() throws Exception {
+        LocalDate wednesday = LocalDate.of(2031, 3, 5);
+        Client client = clientRepository.findById(1L).orElseThrow(() -> new AssertionError("Client not found"));
+        eventService.addEvent(new Event(null, client, BigDecimal.valueOf(200), wednesday,
+                LocalTime.of(10, 0), LocalTime.of(11, 0), false, null, null));
+
+        mvc.perform(get("/availability")
+                        .param("from", wednesday.toString())
+                        .param("to", wednesday.toString())
+                        .param("duration", "60"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].startTime", startsWith("08:00")))
+                .andExpect(jsonPath("$[0].finishTime", startsWith("10:00")))
+                .andExpect(jsonPath("$[1].startTime", startsWith("11:00")))
+                .andExpect(jsonPath("$[1].finishTime", startsWith("21:00")));
+
+        // The stretch before the lesson is too short for 150 minutes
+        mvc.perform(get("/availability")
+                        .param("from", wednesday.toString())
+                        .param("to", wednesday.toString())
+                        .param("duration", "150"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].startTime", startsWith("11:00")));
+    }
+
+    @Test
+    void givenRepeatableSeries_whenGetAvailability_thenProjectedOccurrenceIsTaken() throws Exception {
+        // Series with ID 4 repeats on Fridays from 13:00 to 14:00
+        LocalDate friday = LocalDate.of(2031, 3, 7);
+
+        mvc.perform(get("/availability")
+                        .param("from", friday.toString())
+                        .param("to", friday.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].finishTime", startsWith("13:00")))
+                .andExpect(jsonPath("$[1].startTime", startsWith("14:00")));
+    }
+
+    @Test
+    void givenInvertedRange_whenGetAvailability_thenStatus400() throws Exception {
+        mvc.perform(get("/availability")
+                        .param("from", "2031-03-07")
+                        .param("to", "2031-03-01"))
+                .andExpect(status().isBadRequest());
+    }
+}
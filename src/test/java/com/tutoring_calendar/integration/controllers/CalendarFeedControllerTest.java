@@ -0,0 +1,47 @@
+package com.tutoring_calendar.integration.controllers;
+
+import com.tutoring_calendar.TutoringCalendarApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        classes = TutoringCalendarApplication.class
+)
+@AutoConfigureMockMvc
+class CalendarFeedControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void givenRepeatableSeries_whenGetCalendarFeed_thenWeeklyRuleAndNotModifiedOnRepeat() throws Exception {
+        MvcResult result = mvc.perform(get("/calendar.ics"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/calendar"))
+                .andExpect(content().string(startsWith("BEGIN:VCALENDAR\r\n")))
+                .andExpect(content().string(containsString("RRULE:FREQ=WEEKLY\r\n")))
+                .andExpect(content().string(containsString("SUMMARY:Artem Denysiuk\r\n")))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+
+        mvc.perform(get("/calendar.ics")
+                        .header(HttpHeaders.IF_NONE_MATCH, result.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+    }
+}
@@ -0,0 +1,94 @@
+package com.tutoring_calendar.integration.controllers;
+
+import com.tutoring_calendar.TutoringCalendarApplication;
+import com.tutoring_calendar.models.Client;
+import com.tutoring_calendar.models.Event;
+import com.tutoring_calendar.repositories.ClientRepository;
+import com.tutoring_calendar.services.EventService;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        classes = TutoringCalendarApplication.class
+)
+@AutoConfigureMockMvc
+class ChangeFeedTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\d+)\\nevent:EVENT_CREATED");
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Test
+    void givenSubscriber_whenEventAdded_thenChangeIsPushed() throws Exception {
+        MvcResult subscription = mvc.perform(get("/events/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        Long id = addEvent(LocalDate.of(2025, 9, 3));
+
+        String content = awaitContent(subscription.getResponse(), "\"eventIds\":[" + id + "]");
+        assertThat(content).contains("event:EVENT_CREATED").contains("\"dates\":[\"2025-09-03\"]");
+    }
+
+    @Test
+    void givenLastEventId_whenResubscribing_thenMissedChangesAreReplayed() throws Exception {
+        MvcResult first = mvc.perform(get("/events/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        Long firstId = addEvent(LocalDate.of(2025, 9, 10));
+        Matcher matcher = EVENT_ID.matcher(awaitContent(first.getResponse(), "\"eventIds\":[" + firstId + "]"));
+        assertThat(matcher.find()).isTrue();
+        String lastEventId = matcher.group(1);
+
+        // Added while the client is not connected
+        Long missedId = addEvent(LocalDate.of(2025, 9, 11));
+
+        MvcResult resumed = mvc.perform(get("/events/stream").header("Last-Event-ID", lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String content = awaitContent(resumed.getResponse(), "\"eventIds\":[" + missedId + "]");
+        assertThat(content).doesNotContain("\"eventIds\":[" + firstId + "]");
+    }
+
+    private Long addEvent(LocalDate date) {
+        Client client = clientRepository.findById(1L).orElseThrow(() -> new AssertionError("Client not found"));
+        Event newEvent = new Event(null, client, BigDecimal.valueOf(150), date, LocalTime.of(9, 0), LocalTime.of(10, 0),
+                false, null, null);
+        return eventService.addEvent(newEvent).orElseThrow().getId();
+    }
+
+    private String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = response.getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = response.getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+}
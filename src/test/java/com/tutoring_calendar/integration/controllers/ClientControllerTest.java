@@ -52,6 +52,59 @@ class ClientControllerTest {
                 .andExpect(jsonPath("$.paidForward").value(BigDecimal.valueOf(0)));
     }
 
+    @Test
+    void givenCachedClients_whenDepositAdjusted_thenGetClientsShowsNewDeposit() throws Exception {
+        BigDecimal deposit = clientRepository.findDepositBalance(1L).orElseThrow().getDeposit();
+        // Loads the clients into the second-level cache
+        mvc.perform(get("/clients").contentType(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.clients[0].deposit").value(deposit.doubleValue()));
+
+        mvc.perform(put("/clients/adjust-deposit")
+                        .param("clientId", "1")
+                        .param("amount", "25.00"))
+                .andExpect(status().isNoContent());
+        try {
+            mvc.perform(get("/clients").contentType(APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.clients[0].fullName").value("Artem Denysiuk"))
+                    .andExpect(jsonPath("$.clients[0].deposit").value(deposit.add(BigDecimal.valueOf(25)).doubleValue()));
+        } finally {
+            mvc.perform(put("/clients/adjust-deposit")
+                            .param("clientId", "1")
+                            .param("amount", "-25.00"))
+                    .andExpect(status().isNoContent());
+        }
+    }
+
+    @Test
+    void givenPageSizeOne_whenGetClients_thenFirstPageAndHasNext() throws Exception {
+        mvc.perform(get("/clients")
+                        .param("size", "1")
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.clients.length()").value(1))
+                .andExpect(jsonPath("$.clients[0].fullName").value("Artem Denysiuk"))
+                .andExpect(jsonPath("$.page").value(0))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    void givenClientsOfDefaultTenant_whenGetClientsAsOtherTenant_thenStatus204() throws Exception {
+        mvc.perform(get("/clients")
+                        .header("X-Tenant-Id", "other-tutor")
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void givenInvalidTenantId_whenGetClients_thenStatus400() throws Exception {
+        mvc.perform(get("/clients")
+                        .header("X-Tenant-Id", "no spaces/allowed")
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     @Rollback(value = true)
@@ -84,6 +137,20 @@ class ClientControllerTest {
                 .isEqualByComparingTo(BigDecimal.valueOf(1000));
     }
 
+    @Test
+    void givenOutdatedExpectedVersion_whenChangeClientDeposit_thenStatus409() throws Exception {
+        Client client = clientRepository.findById(3L).orElseThrow();
+
+        mvc.perform(put("/clients/change-deposit")
+                        .param("clientId", "3")
+                        .param("newDepositAmount", "500.00")
+                        .param("expectedVersion", String.valueOf(client.getVersion() + 1)))
+                .andExpect(status().isConflict());
+
+        assertThat(clientRepository.findById(3L).orElseThrow().getDeposit())
+                .isEqualByComparingTo(client.getDeposit());
+    }
+
     @Test
     void givenNonExistedClientIdAndNewDepositAmount_whenChangeClientDeposit_thenStatus404() throws Exception {
         mvc.perform(put("/clients/change-deposit")
@@ -96,6 +163,32 @@ class ClientControllerTest {
         assertTrue(updatedClientOptional.isEmpty());
     }
 
+    @Test
+    void givenClientOfDefaultTenant_whenChangeClientDepositAsOtherTenant_thenStatus404() throws Exception {
+        BigDecimal deposit = clientRepository.findById(3L).orElseThrow().getDeposit();
+
+        mvc.perform(put("/clients/change-deposit")
+                        .header("X-Tenant-Id", "other-tutor")
+                        .param("clientId", "3")
+                        .param("newDepositAmount", "750.00"))
+                .andExpect(status().isNotFound());
+
+        assertThat(clientRepository.findById(3L).orElseThrow().getDeposit()).isEqualByComparingTo(deposit);
+    }
+
+    @Test
+    void givenClientOfDefaultTenant_whenAdjustClientDepositAsOtherTenant_thenStatus404() throws Exception {
+        BigDecimal deposit = clientRepository.findById(3L).orElseThrow().getDeposit();
+
+        mvc.perform(put("/clients/adjust-deposit")
+                        .header("X-Tenant-Id", "other-tutor")
+                        .param("clientId", "3")
+                        .param("amount", "-40.00"))
+                .andExpect(status().isNotFound());
+
+        assertThat(clientRepository.findById(3L).orElseThrow().getDeposit()).isEqualByComparingTo(deposit);
+    }
+
     @Test
     @Transactional
     @Rollback(value = true)
@@ -113,6 +206,16 @@ class ClientControllerTest {
         assertThat(updatedClient.getClientStatus()).isEqualByComparingTo(ClientStatus.ARCHIVED);
     }
 
+    @Test
+    void givenClientOfDefaultTenant_whenArchiveClientAsOtherTenant_thenStatus404() throws Exception {
+        mvc.perform(put("/clients/archive")
+                        .header("X-Tenant-Id", "other-tutor")
+                        .param("clientId", "3"))
+                .andExpect(status().isNotFound());
+
+        assertThat(clientRepository.findById(3L).orElseThrow().getClientStatus()).isEqualTo(ClientStatus.ACTIVE);
+    }
+
     @Test
     void givenNonExistedClientId_whenArchiveClient_thenStatus404() throws Exception {
         mvc.perform(put("/clients/archive")
@@ -0,0 +1,94 @@
+package com.tutoring_calendar.integration.controllers;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.tutoring_calendar.TutoringCalendarApplication;
+import com.tutoring_calendar.logging.RequestLoggingFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The application loggers are raised to INFO as in production, so any DEBUG line that is captured
+// was let through by RequestDebugTurboFilter
+@RunWith(SpringRunner.class)
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        classes = TutoringCalendarApplication.class,
+        properties = "management.endpoints.web.exposure.include=debuglogging"
+)
+@AutoConfigureMockMvc
+class DebugLoggingEndpointTest {
+
+    private final Logger applicationLogger =
+            ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger("com.tutoring_calendar");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private Level previousLevel;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @BeforeEach
+    void captureApplicationLogs() {
+        previousLevel = applicationLogger.getLevel();
+        applicationLogger.setLevel(Level.INFO);
+        appender.start();
+        applicationLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void restoreLogging() throws Exception {
+        mvc.perform(delete("/actuator/debuglogging")).andExpect(status().isNoContent());
+        applicationLogger.detachAppender(appender);
+        applicationLogger.setLevel(previousLevel);
+    }
+
+    @Test
+    void givenClientPickedThroughEndpoint_whenRequestsArrive_thenOnlyItsRequestLogsDebug() throws Exception {
+        mvc.perform(post("/actuator/debuglogging")
+                        .contentType(APPLICATION_JSON)
+                        .content("{\"clientId\": 4}"))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/events/page").param("clientId", "4")
+                        .header(RequestLoggingFilter.REQUEST_ID_HEADER, "picked-request"))
+                .andExpect(status().is2xxSuccessful());
+        mvc.perform(get("/events/page").param("clientId", "3")
+                        .header(RequestLoggingFilter.REQUEST_ID_HEADER, "other-request"))
+                .andExpect(status().is2xxSuccessful());
+
+        List<String> debugRequestIds = appender.list.stream()
+                .filter(event -> event.getLevel() == Level.DEBUG)
+                .map(event -> event.getMDCPropertyMap().get("requestId"))
+                .distinct()
+                .toList();
+        assertThat(debugRequestIds).containsExactly("picked-request");
+    }
+
+    @Test
+    void givenNothingPicked_whenRequestArrives_thenNoDebugLines() throws Exception {
+        mvc.perform(get("/events/page").param("clientId", "4")
+                        .header(RequestLoggingFilter.REQUEST_ID_HEADER, "unpicked-request"))
+                .andExpect(status().is2xxSuccessful());
+
+        assertThat(appender.list).noneMatch(event -> event.getLevel() == Level.DEBUG);
+    }
+}
@@ -4,8 +4,12 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.tutoring_calendar.TutoringCalendarApplication;
+import com.tutoring_calendar.dto.ClientView;
+import com.tutoring_calendar.dto.EventBatchItemResult;
+import com.tutoring_calendar.dto.EventPage;
 import com.tutoring_calendar.dto.EventResponse;
 import com.tutoring_calendar.dto.EventUpdateDTO;
+import com.tutoring_calendar.dto.EventView;
 import com.tutoring_calendar.enums.EventStatus;
 import com.tutoring_calendar.models.Client;
 import com.tutoring_calendar.models.Event;
@@ -21,17 +25,21 @@ import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -65,13 +73,16 @@ public class EventControllerTest {
         String content = mvcResult.getResponse().getContentAsString();
 
         ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
-        List<Event> actual = objectMapper.readValue(content, new TypeReference<List<Event>>() {
-        });
+        EventPage actual = objectMapper.readValue(content, EventPage.class);
 
-        assertThat(content).contains("Artem Denysiuk");
-        assertThat(content).contains("Max Stryzheus");
+        assertThat(actual.getClients().values()).extracting(ClientView::getFullName)
+                .contains("Artem Denysiuk", "Max Stryzheus")
+                .doesNotHaveDuplicates();
 
-        assertThat(actual).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(actual.getEvents()).extracting(EventView::getId)
+                .containsExactlyInAnyOrderElementsOf(expected.stream().map(Event::getId).toList());
+        assertThat(actual.getClients().keySet())
+                .containsExactlyInAnyOrderElementsOf(actual.getEvents().stream().map(EventView::getClientId).distinct().toList());
     }
 
     @Test
@@ -91,6 +102,40 @@ public class EventControllerTest {
         assertThat(content).isEmpty();
     }
 
+    @Test
+    void givenListOfEvents_whenGetEventsPageByPage_thenEveryEventReturnedOnce() throws Exception {
+
+        List<Event> expected = eventRepository.findAll();
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        List<EventView> actual = new ArrayList<>();
+        String token = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/events/page").param("limit", "2");
+            if (token != null) {
+                request.param("token", token);
+            }
+            String content = mvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            EventPage page = objectMapper.readValue(content, EventPage.class);
+            assertThat(page.getEvents()).hasSizeLessThanOrEqualTo(2);
+            assertThat(page.getClients()).containsKeys(page.getEvents().stream().map(EventView::getClientId).toArray(Long[]::new));
+            actual.addAll(page.getEvents());
+            token = page.getNextToken();
+        } while (token != null);
+
+        assertThat(actual).extracting(EventView::getId)
+                .containsExactlyInAnyOrderElementsOf(expected.stream().map(Event::getId).toList());
+    }
+
+    @Test
+    void givenMalformedToken_whenGetEventsPage_thenStatus400() throws Exception {
+        mvc.perform(get("/events/page").param("token", "not-a-token"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void givenPassedDate_whenGetEventsByWeek_thenStatus200() throws Exception {
 
@@ -103,15 +148,15 @@ public class EventControllerTest {
         // Create new recurrent events and save them
         Event recurrentEvent3 = createEvent(clientWithId1, BigDecimal.valueOf(200), LocalDate.of(2023, 10, 22), EventStatus.CREATED, 1L);
         Event recurrentEvent4 = createEvent(clientWithId3, BigDecimal.valueOf(200), LocalDate.of(2023, 10, 22), EventStatus.CREATED, 3L);
-        saveEvent(recurrentEvent3);
-        saveEvent(recurrentEvent4);
+        Long event3Id = saveEvent(recurrentEvent3).getId();
+        Long event4Id = saveEvent(recurrentEvent4).getId();
 
         // Retrieve saved recurrent events
-        Event event3 = eventRepository.findById(7L).orElseThrow(() -> new AssertionError("Event Not Found"));
-        Event event4 = eventRepository.findById(8L).orElseThrow(() -> new AssertionError("Event Not Found"));
+        Event event3 = eventRepository.findById(event3Id).orElseThrow(() -> new AssertionError("Event Not Found"));
+        Event event4 = eventRepository.findById(event4Id).orElseThrow(() -> new AssertionError("Event Not Found"));
 
         // Prepare expected events
-        List<Event> expectedEvents = List.of(event1, event2, event3, event4);
+        List<Long> expectedEventIds = List.of(event1.getId(), event2.getId(), event3.getId(), event4.getId());
 
         // Perform the API call
         LocalDate date = LocalDate.of(2023, 10, 19);
@@ -124,18 +169,100 @@ public class EventControllerTest {
         String content = mvcResult.getResponse().getContentAsString();
         ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
         EventResponse actualResponse = objectMapper.readValue(content, EventResponse.class);
-        List<Event> actualEvents = actualResponse.getEvents();
+        List<EventView> actualEvents = actualResponse.getEvents();
+
+        // Assert the response, every client is listed once next to the events
+        assertThat(actualEvents).extracting(EventView::getId).containsExactlyInAnyOrderElementsOf(expectedEventIds);
+        assertThat(actualResponse.getClients()).containsOnlyKeys(event1.getClient().getId(), event2.getClient().getId(),
+                clientWithId1.getId(), clientWithId3.getId());
+        assertThat(actualResponse.getClients().get(1L).getFullName()).isEqualTo(clientWithId1.getFullName());
+    }
+
+    @Test
+    void givenCurrentEtag_whenGetEventsByWeek_thenStatus304UntilWeekChanges() throws Exception {
+        LocalDate date = LocalDate.of(2025, 6, 11);
+
+        // The first read may materialize recurring events, which changes the ETag once
+        mvc.perform(get("/events/{date}", date)).andExpect(status().isOk());
+        String etag = mvc.perform(get("/events/{date}", date))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).isNotBlank();
+
+        mvc.perform(get("/events/{date}", date).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        Client client = clientRepository.findById(1L).orElseThrow(() -> new AssertionError("Client Not Found"));
+        mvc.perform(post("/events/create-event")
+                        .contentType(APPLICATION_JSON)
+                        .content(new ObjectMapper().registerModule(new JavaTimeModule()).writeValueAsString(
+                                createEvent(client, BigDecimal.valueOf(250), LocalDate.of(2025, 6, 12), null, null))))
+                .andExpect(status().isCreated());
 
-        // Assert the response
-        assertThat(actualEvents).containsExactlyInAnyOrderElementsOf(expectedEvents);
+        mvc.perform(get("/events/{date}", date).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", not(etag)));
+    }
+
+    @Test
+    void givenCurrentEtag_whenClientDepositChanges_thenStatus304() throws Exception {
+        LocalDate date = LocalDate.of(2025, 6, 18);
+
+        mvc.perform(get("/events/{date}", date)).andExpect(status().isOk());
+        String etag = mvc.perform(get("/events/{date}", date))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Week views show no deposits, paying in and charging back leaves every view as it was
+        mvc.perform(put("/clients/adjust-deposit").param("clientId", "1").param("amount", "10.00"))
+                .andExpect(status().isNoContent());
+        mvc.perform(put("/clients/adjust-deposit").param("clientId", "1").param("amount", "-10.00"))
+                .andExpect(status().isNoContent());
+
+        mvc.perform(get("/events/{date}", date).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void givenOverlappingEvent_whenCreateEvent_thenStatus409WithConflicts() throws Exception {
+        Client client = clientRepository.findById(3L).orElseThrow(() -> new AssertionError("Client Not Found"));
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        LocalDate date = LocalDate.of(2025, 7, 2);
+
+        Event lesson = createEvent(client, BigDecimal.valueOf(200), date, null, null);
+        String location = mvc.perform(post("/events/create-event")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lesson)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader("Location");
+        Long lessonId = Long.valueOf(location.substring(location.lastIndexOf('/') + 1));
+
+        Event overlapping = createEvent(client, BigDecimal.valueOf(200), date, null, null);
+        overlapping.setStartTime(LocalTime.of(13, 30));
+        overlapping.setFinishTime(LocalTime.of(14, 30));
+        mvc.perform(post("/events/create-event")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(overlapping)))
+                .andExpect(status().isConflict())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(lessonId));
+
+        // Touching is not overlapping
+        Event adjacent = createEvent(client, BigDecimal.valueOf(200), date, null, null);
+        adjacent.setStartTime(LocalTime.of(14, 0));
+        adjacent.setFinishTime(LocalTime.of(15, 0));
+        mvc.perform(post("/events/create-event")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(adjacent)))
+                .andExpect(status().isCreated());
     }
 
     private Event createEvent(Client client, BigDecimal price, LocalDate date, EventStatus status, Long originalId) {
         return new Event(null, client, price, date, LocalTime.of(13, 0), LocalTime.of(14, 0), false, status, originalId);
     }
 
-    private void saveEvent(Event event) {
-        eventRepository.save(event);
+    private Event saveEvent(Event event) {
+        return eventRepository.save(event);
     }
 
     @Test
@@ -191,4 +318,37 @@ public class EventControllerTest {
                         .content(eventJson))
                 .andExpect(status().isCreated());
     }
+
+    @Test
+    void givenBatchWithInvalidEvent_whenCreateEvents_thenValidEventsCreatedAndInvalidReported() throws Exception {
+        Client newClient = new Client(null, "Batch Client", null, null);
+        List<Event> batch = List.of(
+                createEvent(newClient, BigDecimal.valueOf(300), LocalDate.of(2023, 11, 6), null, null),
+                createEvent(newClient, null, LocalDate.of(2023, 11, 7), null, null),
+                createEvent(newClient, BigDecimal.valueOf(300), LocalDate.of(2023, 11, 8), null, null));
+
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        String content = mvc.perform(post("/events/batch")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<EventBatchItemResult> results = objectMapper.readValue(content, new TypeReference<List<EventBatchItemResult>>() {
+        });
+
+        assertThat(results).extracting(EventBatchItemResult::isCreated).containsExactly(true, false, true);
+        assertThat(results.get(1).getError()).isEqualTo("Price is mandatory");
+
+        Client client = clientRepository.findByFullName("Batch Client").orElseThrow(() -> new AssertionError("Client not found"));
+        for (EventBatchItemResult result : List.of(results.get(0), results.get(2))) {
+            Event event = eventRepository.findById(result.getId()).orElseThrow(() -> new AssertionError("Event not found"));
+            assertThat(event.getOriginalId()).isEqualTo(event.getId());
+            // The client is a lazy proxy here, its ID is read without loading it
+            assertThat(event.getClient().getId()).isEqualTo(client.getId());
+        }
+
+        eventRepository.deleteAllById(List.of(results.get(0).getId(), results.get(2).getId()));
+        clientRepository.delete(client);
+    }
 }
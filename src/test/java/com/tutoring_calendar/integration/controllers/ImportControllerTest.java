@@ -0,0 +1,219 @@
+package com.tutoring_calendar.integration.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tutoring_calendar.TutoringCalendarApplication;
+import com.tutoring_calendar.dto.ImportJobStatus;
+import com.tutoring_calendar.enums.ImportStatus;
+import com.tutoring_calendar.models.Event;
+import com.tutoring_calendar.repositories.EventRepository;
+import com.tutoring_calendar.tenancy.TenantContext;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        classes = TutoringCalendarApplication.class
+)
+@AutoConfigureMockMvc
+class ImportControllerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Test
+    void givenCsvWithInvalidLine_whenImport_thenValidLessonsCreatedAndLineReported() throws Exception {
+        String csv = """
+                client,date,start_time,finish_time,price
+                Artem Denysiuk,2032-04-05,09:00,10:00,250
+                Artem Denysiuk,2032-04-06,11:00,10:00,250
+                """;
+        MockMultipartFile file = new MockMultipartFile("file", "lessons.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+
+        String content = mvc.perform(multipart("/imports").file(file))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getContentAsString();
+
+        ImportJobStatus job = awaitFinished(objectMapper.readValue(content, ImportJobStatus.class).getId(),
+                TenantContext.DEFAULT_TENANT);
+
+        assertThat(job.getStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(job.getEventsCreated()).isEqualTo(1);
+        assertThat(job.getEventsFailed()).isEqualTo(1);
+        assertThat(job.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.getLine()).isEqualTo(3));
+        assertThat(eventRepository.findAll()).extracting(Event::getDate, Event::getStartTime)
+                .contains(Tuple.tuple(LocalDate.of(2032, 4, 5), LocalTime.of(9, 0)));
+    }
+
+    @Test
+    void givenIcsWithOverrideBeforeItsSeries_whenImport_thenOverrideChangesTheSeriesOccurrence() throws Exception {
+        String ics = """
+                BEGIN:VCALENDAR
+                VERSION:2.0
+                BEGIN:VEVENT
+                UID:series-1@test
+                RECURRENCE-ID:20330110T100000
+                SUMMARY:Ics Client
+                DTSTART:20330110T120000
+                DTEND:20330110T130000
+                X-TUTORING-PRICE:300
+                END:VEVENT
+                BEGIN:VEVENT
+                UID:series-1@test
+                SUMMARY:Ics Client
+                DTSTART:20330103T100000
+                DTEND:20330103T110000
+                RRULE:FREQ=WEEKLY
+                X-TUTORING-PRICE:250
+                END:VEVENT
+                END:VCALENDAR
+                """;
+
+        ImportJobStatus job = importFile("ics-override-test", "lessons.ics", ics);
+
+        assertThat(job.getStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(job.getEventsCreated()).isEqualTo(2);
+        assertThat(job.getEventsFailed()).isZero();
+        List<Event> events = TenantContext.callAs("ics-override-test", eventRepository::findAll);
+        Event series = events.stream().filter(Event::isRepeatable).findFirst().orElseThrow();
+        assertThat(series.getDate()).isEqualTo(LocalDate.of(2033, 1, 3));
+        assertThat(events).filteredOn(event -> !event.isRepeatable()).singleElement().satisfies(override -> {
+            assertThat(override.getOriginalId()).isEqualTo(series.getId());
+            assertThat(override.getDate()).isEqualTo(LocalDate.of(2033, 1, 10));
+            assertThat(override.getStartTime()).isEqualTo(LocalTime.of(12, 0));
+            assertThat(override.getPrice()).isEqualByComparingTo(BigDecimal.valueOf(300));
+        });
+    }
+
+    @Test
+    void givenIcsWithCancelledUnsupportedAndZonedEvents_whenImport_thenOnlySupportedLessonsCreated() throws Exception {
+        String ics = """
+                BEGIN:VCALENDAR
+                VERSION:2.0
+                BEGIN:VEVENT
+                UID:cancelled@test
+                SUMMARY:Ics Client
+                DTSTART:20330104T100000
+                DTEND:20330104T110000
+                STATUS:CANCELLED
+                END:VEVENT
+                BEGIN:VEVENT
+                UID:daily@test
+                SUMMARY:Ics Client
+                DTSTART:20330105T100000
+                DTEND:20330105T110000
+                RRULE:FREQ=DAILY
+                END:VEVENT
+                BEGIN:VEVENT
+                UID:zoned@test
+                SUMMARY:Ics Client
+                DTSTART;TZID=Europe/Kyiv:20330106T100000
+                DURATION:PT1H30M
+                BEGIN:VALARM
+                TRIGGER:-PT15M
+                DESCRIPTION:Reminder
+                END:VALARM
+                END:VEVENT
+                END:VCALENDAR
+                """;
+
+        ImportJobStatus job = importFile("ics-cases-test", "lessons.ics", ics);
+
+        assertThat(job.getStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(job.getEventsCreated()).isEqualTo(1);
+        assertThat(job.getEventsFailed()).isEqualTo(1);
+        assertThat(job.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.getLine()).isEqualTo(10));
+        LocalDateTime start = LocalDateTime.of(2033, 1, 6, 10, 0).atZone(ZoneId.of("Europe/Kyiv"))
+                .withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        assertThat(TenantContext.callAs("ics-cases-test", eventRepository::findAll)).singleElement().satisfies(event -> {
+            assertThat(event.getDate()).isEqualTo(start.toLocalDate());
+            assertThat(event.getStartTime()).isEqualTo(start.toLocalTime());
+            assertThat(event.getFinishTime()).isEqualTo(start.toLocalTime().plusMinutes(90));
+            assertThat(event.getPrice()).isEqualByComparingTo(BigDecimal.valueOf(200));
+        });
+    }
+
+    @Test
+    void givenCalendarFeed_whenImportedIntoAnotherTenant_thenSeriesAreRecreated() throws Exception {
+        String feed = mvc.perform(get("/calendar.ics"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        ImportJobStatus job = importFile("ics-roundtrip-test", "calendar.ics", feed);
+
+        assertThat(job.getStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(job.getEventsFailed()).isZero();
+        LocalDate lastDay = LocalDate.of(9999, 12, 31);
+        assertThat(TenantContext.callAs("ics-roundtrip-test", () -> eventRepository.findRepeatableSeriesStartedBefore(lastDay)))
+                .extracting(Event::getDate, Event::getStartTime, Event::getFinishTime, event -> event.getPrice().stripTrailingZeros())
+                .containsExactlyInAnyOrderElementsOf(eventRepository.findRepeatableSeriesStartedBefore(lastDay).stream()
+                        .map(event -> Tuple.tuple(event.getDate(), event.getStartTime(), event.getFinishTime(),
+                                event.getPrice().stripTrailingZeros()))
+                        .toList());
+    }
+
+    @Test
+    void givenUnknownFileType_whenImport_thenStatus400() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "lessons.txt", "text/plain", "x".getBytes(StandardCharsets.UTF_8));
+
+        mvc.perform(multipart("/imports").file(file))
+                .andExpect(status().isBadRequest());
+    }
+
+    // Imported as a tenant of its own, so the lessons of the file never meet those of other tests
+    private ImportJobStatus importFile(String tenantId, String fileName, String content) throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", fileName, "text/calendar", content.getBytes(StandardCharsets.UTF_8));
+
+        String response = mvc.perform(multipart("/imports").file(file)
+                        .header(TenantContext.TENANT_HEADER, tenantId)
+                        .param("price", "200"))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+
+        return awaitFinished(objectMapper.readValue(response, ImportJobStatus.class).getId(), tenantId);
+    }
+
+    private ImportJobStatus awaitFinished(String id, String tenantId) throws Exception {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            String content = mvc.perform(get("/imports/{id}", id)
+                            .header(TenantContext.TENANT_HEADER, tenantId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            ImportJobStatus job = objectMapper.readValue(content, ImportJobStatus.class);
+            if (job.getFinishedAt() != null) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Import " + id + " did not finish");
+    }
+}
@@ -0,0 +1,103 @@
+package com.tutoring_calendar.integration.controllers;
+
+import com.tutoring_calendar.TutoringCalendarApplication;
+import com.tutoring_calendar.dto.ClientResponse;
+import com.tutoring_calendar.dto.EventResponse;
+import com.tutoring_calendar.dto.EventView;
+import com.tutoring_calendar.models.Event;
+import com.tutoring_calendar.repositories.EventRepository;
+import com.tutoring_calendar.services.EventService;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the WebFlux variant of the API against the test database, read through H2's R2DBC driver.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(
+        classes = TutoringCalendarApplication.class,
+        properties = {
+                "spring.main.web-application-type=reactive",
+                "calendar.reactive.r2dbc.url=r2dbc:h2:mem:///dbtest?options=DB_CLOSE_DELAY=-1",
+                "calendar.reactive.r2dbc.username=sa",
+                "calendar.reactive.r2dbc.password=password"
+        }
+)
+@AutoConfigureWebTestClient
+class ReactiveApiTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private EventService eventService;
+
+    @Test
+    void givenListOfEvents_whenGetAllEvents_thenEventsAreStreamedAsNdjson() {
+        List<Event> expected = eventRepository.findAll();
+
+        List<EventView> actual = webTestClient.get().uri("/events")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(EventView.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(actual).extracting(EventView::getId)
+                .containsExactlyInAnyOrderElementsOf(expected.stream().map(Event::getId).toList());
+    }
+
+    @Test
+    void givenFilterMatchingNothing_whenGetAllEvents_thenStatus204() {
+        webTestClient.get().uri("/events?from=1990-01-01&to=1990-01-31")
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    @Test
+    void givenDate_whenGetEventsByWeek_thenSameWeekAsBlockingService() {
+        LocalDate date = LocalDate.of(2023, 10, 18);
+
+        EventResponse actual = webTestClient.get().uri("/events/{date}", date)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(EventResponse.class)
+                .returnResult()
+                .getResponseBody();
+        EventResponse expected = eventService.getEventsForSelectedWeek(date);
+
+        assertThat(actual).isNotNull();
+        assertThat(actual.getEvents()).containsExactlyInAnyOrderElementsOf(expected.getEvents());
+        assertThat(actual.getClients()).isEqualTo(expected.getClients());
+        assertThat(actual.getExpectedWeekIncome()).isEqualByComparingTo(expected.getExpectedWeekIncome());
+        assertThat(actual.getExpectedMonthIncome()).isEqualByComparingTo(expected.getExpectedMonthIncome());
+    }
+
+    @Test
+    void givenPageSizeOne_whenGetAllClients_thenNextPageIsReported() {
+        ClientResponse response = webTestClient.get().uri("/clients?size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ClientResponse.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(response).isNotNull();
+        assertThat(response.getClients()).hasSize(1);
+        assertThat(response.isHasNext()).isTrue();
+    }
+}
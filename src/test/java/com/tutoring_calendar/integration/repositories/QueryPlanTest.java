@@ -0,0 +1,114 @@
+package com.tutoring_calendar.integration.repositories;
+
+import com.tutoring_calendar.TutoringCalendarApplication;
+import com.tutoring_calendar.enums.ClientStatus;
+import com.tutoring_calendar.enums.EventStatus;
+import com.tutoring_calendar.metrics.QueryCountInspector;
+import com.tutoring_calendar.models.Client;
+import com.tutoring_calendar.repositories.ClientRepository;
+import com.tutoring_calendar.repositories.EventRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Calls the hot repository queries, captures the SQL Hibernate generates for them, tenant restriction
+ * included, and runs it through H2's EXPLAIN to check that none of them falls back to a table scan.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = TutoringCalendarApplication.class)
+class QueryPlanTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2023, 10, 16);
+    private static final LocalDate LAST_DAY = LocalDate.of(2023, 10, 22);
+
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private QueryCountInspector queryCountInspector;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void givenDateRange_whenFindViewsByDateRange_thenIndexIsUsed() {
+        assertUsesIndex(() -> eventRepository.findViewsByDateRange(FIRST_DAY, LAST_DAY));
+    }
+
+    @Test
+    void givenDate_whenFindRepeatableSeriesStartedBefore_thenIndexIsUsed() {
+        assertUsesIndex(() -> eventRepository.findRepeatableSeriesStartedBefore(FIRST_DAY));
+    }
+
+    @Test
+    void givenDateRange_whenFindSeriesOccurrencesBetween_thenIndexIsUsed() {
+        assertUsesIndex(() -> eventRepository.findSeriesOccurrencesBetween(FIRST_DAY, LAST_DAY));
+    }
+
+    @Test
+    void givenSeriesAndWeek_whenFindOccurrencesOfSeriesBetween_thenIndexIsUsed() {
+        assertUsesIndex(() -> eventRepository.findOccurrencesOfSeriesBetween(1L, FIRST_DAY, LAST_DAY));
+    }
+
+    @Test
+    void givenClient_whenFindAllByClient_thenIndexIsUsed() {
+        Client client = clientRepository.findInTenant(1L).orElseThrow();
+
+        assertUsesIndex(() -> eventRepository.findAllByClient(client));
+    }
+
+    @Test
+    void givenCutoff_whenFindDueEvents_thenIndexIsUsed() {
+        assertUsesIndex(() -> eventRepository.findDueEvents(EventStatus.CREATED, 0L, LAST_DAY, LocalTime.NOON,
+                PageRequest.of(0, 500)));
+    }
+
+    @Test
+    void givenFilterAndPosition_whenFindViewPageAfter_thenIndexIsUsed() {
+        assertUsesIndex(() -> eventRepository.findViewPageAfter(FIRST_DAY, LAST_DAY, 1L, EventStatus.CREATED,
+                FIRST_DAY, 1L, PageRequest.of(0, 51)));
+    }
+
+    @Test
+    void givenFullName_whenFindByFullName_thenIndexIsUsed() {
+        assertUsesIndex(() -> clientRepository.findByFullName("Artem Denysiuk"));
+    }
+
+    @Test
+    void givenStatus_whenFindAllByClientStatus_thenIndexIsUsed() {
+        assertUsesIndex(() -> clientRepository.findAllByClientStatus(ClientStatus.ACTIVE,
+                PageRequest.of(0, 50, Sort.by("fullName").and(Sort.by("id")))));
+    }
+
+    // The parameters are bound as NULL, H2 plans a prepared query before it sees their values
+    private void assertUsesIndex(Runnable query) {
+        // A cached query result would run no SQL at all
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+
+        List<String> statements = queryCountInspector.captureSql(query);
+
+        assertThat(statements).isNotEmpty();
+        for (String sql : statements) {
+            Object[] parameters = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+            List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters);
+
+            assertThat(String.join("\n", plan)).as(sql).doesNotContainIgnoringCase("tableScan");
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.tutoring_calendar.integration.services;
+
+import com.tutoring_calendar.TutoringCalendarApplication;
+import com.tutoring_calendar.models.Client;
+import com.tutoring_calendar.repositories.ClientRepository;
+import com.tutoring_calendar.services.ClientResolutionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = TutoringCalendarApplication.class)
+public class ClientResolutionServiceTest {
+
+    private static final int THREADS = 8;
+    private static final List<String> NAMES = List.of("Stress Client A", "Stress Client B", "Stress Client C");
+
+    @Autowired
+    private ClientResolutionService clientResolutionService;
+    @Autowired
+    private ClientRepository clientRepository;
+
+    // The names stay cached with the IDs of the deleted rows, no other test resolves them
+    @AfterEach
+    void removeCreatedClients() {
+        clientRepository.findAll().stream()
+                .filter(client -> NAMES.contains(client.getFullName()))
+                .forEach(clientRepository::delete);
+    }
+
+    @Test
+    void givenConcurrentRequestsForNewNames_whenResolveClientId_thenOneRowPerName() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<List<Long>>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Callable<List<Long>> resolveAll = () -> {
+                start.await();
+                return NAMES.stream().map(clientResolutionService::resolveClientId).toList();
+            };
+            results.add(executor.submit(resolveAll));
+        }
+
+        start.countDown();
+        List<List<Long>> resolvedIds = new ArrayList<>();
+        for (Future<List<Long>> result : results) {
+            resolvedIds.add(result.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        for (int i = 0; i < NAMES.size(); i++) {
+            String name = NAMES.get(i);
+            List<Client> rows = clientRepository.findAll().stream()
+                    .filter(client -> client.getFullName().equals(name))
+                    .toList();
+            assertThat(rows).hasSize(1);
+
+            int nameIndex = i;
+            assertThat(resolvedIds).allSatisfy(ids -> assertThat(ids.get(nameIndex)).isEqualTo(rows.get(0).getId()));
+        }
+    }
+}
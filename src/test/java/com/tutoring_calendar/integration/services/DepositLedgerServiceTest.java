@@ -0,0 +1,72 @@
+package com.tutoring_calendar.integration.services;
+
+import com.tutoring_calendar.TutoringCalendarApplication;
+import com.tutoring_calendar.enums.DepositTransactionType;
+import com.tutoring_calendar.repositories.ClientRepository;
+import com.tutoring_calendar.repositories.DepositTransactionRepository;
+import com.tutoring_calendar.services.DepositLedgerService;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = TutoringCalendarApplication.class)
+public class DepositLedgerServiceTest {
+
+    private static final int THREADS = 8;
+    private static final int POSTS_PER_THREAD = 25;
+    private static final Long CLIENT_ID = 3L;
+
+    @Autowired
+    private DepositLedgerService depositLedgerService;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private DepositTransactionRepository depositTransactionRepository;
+
+    @Test
+    void givenConcurrentPosts_whenPost_thenNoChangeIsLost() throws Exception {
+        BigDecimal initialDeposit = clientRepository.findById(CLIENT_ID).orElseThrow().getDeposit();
+        long initialTransactions = depositTransactionRepository.countByClientId(CLIENT_ID);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < POSTS_PER_THREAD; j++) {
+                    depositLedgerService.post(CLIENT_ID, BigDecimal.ONE, DepositTransactionType.ADJUSTMENT);
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(clientRepository.findById(CLIENT_ID).orElseThrow().getDeposit())
+                .isEqualByComparingTo(initialDeposit.add(BigDecimal.valueOf(THREADS * POSTS_PER_THREAD)));
+        assertThat(depositTransactionRepository.countByClientId(CLIENT_ID))
+                .isEqualTo(initialTransactions + THREADS * POSTS_PER_THREAD);
+
+        depositLedgerService.setBalance(CLIENT_ID, initialDeposit, null);
+        assertThat(clientRepository.findById(CLIENT_ID).orElseThrow().getDeposit()).isEqualByComparingTo(initialDeposit);
+    }
+}
@@ -0,0 +1,239 @@
+package com.tutoring_calendar.integration.services;
+
+import com.tutoring_calendar.TutoringCalendarApplication;
+import com.tutoring_calendar.dto.EventUpdateDTO;
+import com.tutoring_calendar.dto.IncomeSummary;
+import com.tutoring_calendar.enums.EventStatus;
+import com.tutoring_calendar.models.Client;
+import com.tutoring_calendar.models.DailyIncome;
+import com.tutoring_calendar.models.Event;
+import com.tutoring_calendar.models.MonthlyIncome;
+import com.tutoring_calendar.repositories.DailyIncomeRepository;
+import com.tutoring_calendar.repositories.DepositTransactionRepository;
+import com.tutoring_calendar.repositories.EventRepository;
+import com.tutoring_calendar.repositories.MonthlyIncomeRepository;
+import com.tutoring_calendar.repositories.SettlementCheckpointRepository;
+import com.tutoring_calendar.services.EventService;
+import com.tutoring_calendar.services.IncomeLedgerService;
+import com.tutoring_calendar.services.SettlementService;
+import com.tutoring_calendar.tenancy.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs as a tenant of its own so the rollups of the other tests are left alone. Every test books
+// other days, the interval index of the tenant outlives the rows removed after each test.
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = TutoringCalendarApplication.class)
+public class IncomeLedgerServiceTest {
+
+    private static final String TENANT_ID = "income-test";
+    private static final String CLIENT_NAME = "Income Client";
+
+    @Autowired
+    private IncomeLedgerService incomeLedgerService;
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private SettlementService settlementService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private DepositTransactionRepository depositTransactionRepository;
+    @Autowired
+    private SettlementCheckpointRepository checkpointRepository;
+    @Autowired
+    private DailyIncomeRepository dailyIncomeRepository;
+    @Autowired
+    private MonthlyIncomeRepository monthlyIncomeRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void removeTenantData() {
+        TenantContext.runAs(TENANT_ID, () -> {
+            checkpointRepository.deleteById("events:" + TENANT_ID);
+            depositTransactionRepository.deleteAll();
+            // The client is kept for the next test, its ID stays cached by name
+            eventRepository.deleteAll();
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                dailyIncomeRepository.deleteAllByTenantId(TENANT_ID);
+                monthlyIncomeRepository.deleteAllByTenantId(TENANT_ID);
+            });
+        });
+    }
+
+    @Test
+    void givenNewEvents_whenAddEvent_thenDayAndMonthRowsAreCreatedAndAddedTo() {
+        TenantContext.runAs(TENANT_ID, () -> {
+            LocalDate date = LocalDate.of(2041, 3, 5);
+
+            addEvent(50, date, 10);
+            assertIncome(date, 50, 0);
+            assertMonthlyIncome(date, 50, 0);
+
+            addEvent(30, date, 12);
+            addEvent(20, date.plusDays(1), 10);
+            assertIncome(date, 80, 0);
+            assertIncome(date.plusDays(1), 20, 0);
+            assertMonthlyIncome(date, 100, 0);
+        });
+    }
+
+    @Test
+    void givenEvent_whenDatePriceAndStatusChange_thenTotalsMoveToTheNewDayAndMonth() {
+        TenantContext.runAs(TENANT_ID, () -> {
+            LocalDate date = LocalDate.of(2041, 5, 30);
+            LocalDate newDate = LocalDate.of(2041, 6, 4);
+            Event event = addEvent(50, date, 10);
+
+            EventUpdateDTO update = new EventUpdateDTO();
+            update.setId(event.getId());
+            update.setPrice(BigDecimal.valueOf(70));
+            update.setDate(newDate);
+            update.setEventStatus(EventStatus.FINISHED);
+            eventService.updateEventData(update);
+
+            assertIncome(date, 0, 0);
+            assertMonthlyIncome(date, 0, 0);
+            assertIncome(newDate, 70, 70);
+            assertMonthlyIncome(newDate, 70, 70);
+
+            update = new EventUpdateDTO();
+            update.setId(event.getId());
+            update.setEventStatus(EventStatus.UPDATED);
+            eventService.updateEventData(update);
+
+            assertIncome(newDate, 70, 0);
+            assertMonthlyIncome(newDate, 70, 0);
+        });
+    }
+
+    @Test
+    void givenDueEvents_whenSettled_thenIncomeIsRealizedOnTheirDays() {
+        TenantContext.runAs(TENANT_ID, () -> {
+            LocalDate date = LocalDate.of(2041, 7, 9);
+            addEvent(40, date, 10);
+            addEvent(25, date.plusDays(1), 10);
+            addEvent(60, date.plusDays(2), 10);
+
+            settlementService.settleDueEvents(date.plusDays(2).atStartOfDay());
+
+            assertIncome(date, 40, 40);
+            assertIncome(date.plusDays(1), 25, 25);
+            assertIncome(date.plusDays(2), 60, 0);
+            assertMonthlyIncome(date, 125, 65);
+        });
+    }
+
+    @Test
+    void givenIncrementalTotals_whenRebuild_thenTotalsAreRecomputedFromEvents() {
+        TenantContext.runAs(TENANT_ID, () -> {
+            LocalDate date = LocalDate.of(2041, 9, 12);
+            addEvent(45, date, 10);
+            addEvent(55, date, 12);
+            Event moved = addEvent(35, date.plusDays(1), 10);
+
+            EventUpdateDTO update = new EventUpdateDTO();
+            update.setId(moved.getId());
+            update.setDate(date.plusMonths(1));
+            update.setEventStatus(EventStatus.FINISHED);
+            eventService.updateEventData(update);
+
+            incomeLedgerService.rebuild();
+
+            assertIncome(date, 100, 0);
+            assertIncome(date.plusMonths(1), 35, 35);
+            assertMonthlyIncome(date, 100, 0);
+            assertMonthlyIncome(date.plusMonths(1), 35, 35);
+            // Days without events are not recreated
+            assertThat(dailyIncomeRepository.findById(new DailyIncome.Key(TENANT_ID, date.plusDays(1)))).isEmpty();
+        });
+    }
+
+    @Test
+    void givenTenantWithoutRowsNextToOneWithRows_whenRebuildIfEmpty_thenItsLedgerIsBuilt() {
+        TenantContext.runAs(TENANT_ID, () -> {
+            LocalDate date = LocalDate.of(2041, 11, 20);
+            addEvent(65, date, 10);
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                dailyIncomeRepository.deleteAllByTenantId(TENANT_ID);
+                monthlyIncomeRepository.deleteAllByTenantId(TENANT_ID);
+            });
+        });
+        assertThat(dailyIncomeRepository.existsByTenantId(TenantContext.DEFAULT_TENANT)).isTrue();
+
+        incomeLedgerService.rebuildIfEmpty();
+
+        TenantContext.runAs(TENANT_ID, () -> {
+            LocalDate date = LocalDate.of(2041, 11, 20);
+            assertIncome(date, 65, 0);
+            assertMonthlyIncome(date, 65, 0);
+        });
+    }
+
+    @Test
+    void givenWeekAcrossTwoMonths_whenSummarizeIncome_thenCurrentAndExpectedTotalsCountTheRightDays() {
+        TenantContext.runAs(TENANT_ID, () -> {
+            // Monday December 30th to Sunday January 5th, summarized for December on New Year's Eve
+            LocalDate firstDayOfWeek = LocalDate.of(2041, 12, 30);
+            LocalDate today = LocalDate.of(2041, 12, 31);
+            addEvent(10, LocalDate.of(2041, 12, 2), 10);
+            addEvent(20, LocalDate.of(2041, 12, 29), 10);
+            addEvent(30, firstDayOfWeek, 10);
+            addEvent(40, today, 10);
+            addEvent(50, LocalDate.of(2042, 1, 2), 10);
+            addEvent(60, LocalDate.of(2042, 1, 10), 10);
+
+            IncomeSummary summary = incomeLedgerService.summarizeIncome(firstDayOfWeek, firstDayOfWeek.plusDays(6),
+                    LocalDate.of(2041, 12, 1), LocalDate.of(2041, 12, 31), today);
+
+            // Only the days before today are current
+            assertThat(summary.getCurrentWeekIncome()).isEqualByComparingTo(BigDecimal.valueOf(30));
+            assertThat(summary.getExpectedWeekIncome()).isEqualByComparingTo(BigDecimal.valueOf(120));
+            assertThat(summary.getCurrentMonthIncome()).isEqualByComparingTo(BigDecimal.valueOf(60));
+            assertThat(summary.getExpectedMonthIncome()).isEqualByComparingTo(BigDecimal.valueOf(100));
+
+            // A range without rows sums to zero rather than null
+            IncomeSummary empty = incomeLedgerService.summarizeIncome(LocalDate.of(2042, 2, 3), LocalDate.of(2042, 2, 9),
+                    LocalDate.of(2042, 2, 1), LocalDate.of(2042, 2, 28), today);
+            assertThat(empty.getCurrentWeekIncome()).isEqualByComparingTo(BigDecimal.ZERO);
+            assertThat(empty.getExpectedWeekIncome()).isEqualByComparingTo(BigDecimal.ZERO);
+            assertThat(empty.getCurrentMonthIncome()).isEqualByComparingTo(BigDecimal.ZERO);
+            assertThat(empty.getExpectedMonthIncome()).isEqualByComparingTo(BigDecimal.ZERO);
+        });
+    }
+
+    private Event addEvent(int price, LocalDate date, int startHour) {
+        Event event = new Event(null, new Client(null, CLIENT_NAME, null, null), BigDecimal.valueOf(price), date,
+                LocalTime.of(startHour, 0), LocalTime.of(startHour + 1, 0), false, null, null);
+        return eventService.addEvent(event).orElseThrow();
+    }
+
+    private void assertIncome(LocalDate date, int expected, int realized) {
+        DailyIncome dailyIncome = dailyIncomeRepository.findById(new DailyIncome.Key(TENANT_ID, date)).orElseThrow();
+        assertThat(dailyIncome.getExpectedIncome()).isEqualByComparingTo(BigDecimal.valueOf(expected));
+        assertThat(dailyIncome.getRealizedIncome()).isEqualByComparingTo(BigDecimal.valueOf(realized));
+    }
+
+    private void assertMonthlyIncome(LocalDate date, int expected, int realized) {
+        YearMonth month = YearMonth.from(date);
+        List<MonthlyIncome> monthlyIncomes = incomeLedgerService.getMonthlyIncome(month, month);
+        assertThat(monthlyIncomes).hasSize(1);
+        assertThat(monthlyIncomes.get(0).getExpectedIncome()).isEqualByComparingTo(BigDecimal.valueOf(expected));
+        assertThat(monthlyIncomes.get(0).getRealizedIncome()).isEqualByComparingTo(BigDecimal.valueOf(realized));
+    }
+}
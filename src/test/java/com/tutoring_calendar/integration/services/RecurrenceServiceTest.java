@@ -0,0 +1,106 @@
+package com.tutoring_calendar.integration.services;
+
+import com.tutoring_calendar.TutoringCalendarApplication;
+import com.tutoring_calendar.enums.ClientStatus;
+import com.tutoring_calendar.enums.EventStatus;
+import com.tutoring_calendar.models.Client;
+import com.tutoring_calendar.models.DailyIncome;
+import com.tutoring_calendar.models.Event;
+import com.tutoring_calendar.repositories.ClientRepository;
+import com.tutoring_calendar.repositories.DailyIncomeRepository;
+import com.tutoring_calendar.repositories.EventRepository;
+import com.tutoring_calendar.repositories.MonthlyIncomeRepository;
+import com.tutoring_calendar.services.RecurrenceService;
+import com.tutoring_calendar.tenancy.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs as a tenant of its own, so only the series seeded here are materialized
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = TutoringCalendarApplication.class)
+public class RecurrenceServiceTest {
+
+    private static final String TENANT_ID = "recurrence-test";
+    // A Monday, four weeks after the series below started
+    private static final LocalDate WEEK_START = LocalDate.of(2043, 2, 2);
+    private static final LocalDate WEEK_END = WEEK_START.plusDays(6);
+
+    @Autowired
+    private RecurrenceService recurrenceService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private DailyIncomeRepository dailyIncomeRepository;
+    @Autowired
+    private MonthlyIncomeRepository monthlyIncomeRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void removeTenantData() {
+        TenantContext.runAs(TENANT_ID, () -> {
+            eventRepository.deleteAll();
+            clientRepository.deleteAll();
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                dailyIncomeRepository.deleteAllByTenantId(TENANT_ID);
+                monthlyIncomeRepository.deleteAllByTenantId(TENANT_ID);
+            });
+        });
+    }
+
+    @Test
+    void givenSeriesWithAndWithoutRowInWeek_whenMaterializeWeek_thenOnlyMissingOccurrenceIsCreated() {
+        TenantContext.runAs(TENANT_ID, () -> {
+            Client client = clientRepository.save(new Client(null, "Recurrence Client", BigDecimal.ZERO, ClientStatus.ACTIVE));
+            Event withoutRow = save(new Event(null, client, BigDecimal.valueOf(100), WEEK_START.minusWeeks(4),
+                    LocalTime.of(10, 0), LocalTime.of(11, 0), true, EventStatus.CREATED, null));
+            Event withRow = save(new Event(null, client, BigDecimal.valueOf(120), WEEK_START.minusWeeks(4).plusDays(1),
+                    LocalTime.of(10, 0), LocalTime.of(11, 0), true, EventStatus.CREATED, null));
+            // The occurrence of this week was moved from Tuesday to Thursday
+            Event movedOccurrence = save(new Event(null, client, BigDecimal.valueOf(120), WEEK_START.plusDays(3),
+                    LocalTime.of(15, 0), LocalTime.of(16, 0), false, EventStatus.CREATED, withRow.getId()));
+            Event startingThisWeek = save(new Event(null, client, BigDecimal.valueOf(140), WEEK_START.plusDays(2),
+                    LocalTime.of(10, 0), LocalTime.of(11, 0), true, EventStatus.CREATED, null));
+
+            int created = recurrenceService.materializeWeek(WEEK_START, WEEK_END);
+
+            assertThat(created).isEqualTo(1);
+            List<Event> occurrences = eventRepository.findOccurrencesOfSeriesBetween(withoutRow.getId(), WEEK_START, WEEK_END);
+            assertThat(occurrences).singleElement().satisfies(occurrence -> {
+                assertThat(occurrence.getDate()).isEqualTo(WEEK_START);
+                assertThat(occurrence.getStartTime()).isEqualTo(LocalTime.of(10, 0));
+                assertThat(occurrence.getPrice()).isEqualByComparingTo(BigDecimal.valueOf(100));
+                assertThat(occurrence.isRepeatable()).isFalse();
+                assertThat(occurrence.getEventStatus()).isEqualTo(EventStatus.CREATED);
+            });
+            assertThat(eventRepository.findOccurrencesOfSeriesBetween(withRow.getId(), WEEK_START, WEEK_END))
+                    .extracting(Event::getId).containsExactly(movedOccurrence.getId());
+            assertThat(eventRepository.findOccurrencesOfSeriesBetween(startingThisWeek.getId(), WEEK_START, WEEK_END)).isEmpty();
+            // The seeded rows were saved past the ledger, the day holds the new occurrence alone
+            assertThat(dailyIncomeRepository.findById(new DailyIncome.Key(TENANT_ID, WEEK_START)).orElseThrow()
+                    .getExpectedIncome()).isEqualByComparingTo(BigDecimal.valueOf(100));
+
+            // Nothing is missing any more
+            assertThat(recurrenceService.materializeWeek(WEEK_START, WEEK_END)).isZero();
+        });
+    }
+
+    private Event save(Event event) {
+        return eventRepository.save(event);
+    }
+}
@@ -0,0 +1,177 @@
+package com.tutoring_calendar.integration.services;
+
+import com.tutoring_calendar.TutoringCalendarApplication;
+import com.tutoring_calendar.enums.ClientStatus;
+import com.tutoring_calendar.enums.DepositTransactionType;
+import com.tutoring_calendar.enums.EventStatus;
+import com.tutoring_calendar.enums.SettlementStatus;
+import com.tutoring_calendar.models.Client;
+import com.tutoring_calendar.models.DepositTransaction;
+import com.tutoring_calendar.models.Event;
+import com.tutoring_calendar.models.SettlementCheckpoint;
+import com.tutoring_calendar.repositories.ClientRepository;
+import com.tutoring_calendar.repositories.DailyIncomeRepository;
+import com.tutoring_calendar.repositories.DepositTransactionRepository;
+import com.tutoring_calendar.repositories.EventRepository;
+import com.tutoring_calendar.repositories.MonthlyIncomeRepository;
+import com.tutoring_calendar.repositories.SettlementCheckpointRepository;
+import com.tutoring_calendar.services.DepositLedgerService;
+import com.tutoring_calendar.services.SettlementService;
+import com.tutoring_calendar.tenancy.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs as a tenant of its own with a small chunk size, so a run spans several chunks and the data of
+// the other tests is left alone. The dates are far ahead, the scheduled settlement never reaches them.
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = TutoringCalendarApplication.class, properties = "calendar.settlement.chunk-size=2")
+public class SettlementServiceTest {
+
+    private static final String TENANT_ID = "settlement-test";
+    private static final String JOB_NAME = "events:" + TENANT_ID;
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2040, 1, 10, 12, 0);
+    private static final BigDecimal INITIAL_DEPOSIT = BigDecimal.valueOf(1000);
+
+    @Autowired
+    private SettlementService settlementService;
+    @Autowired
+    private DepositLedgerService depositLedgerService;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private DepositTransactionRepository depositTransactionRepository;
+    @Autowired
+    private SettlementCheckpointRepository checkpointRepository;
+    @Autowired
+    private DailyIncomeRepository dailyIncomeRepository;
+    @Autowired
+    private MonthlyIncomeRepository monthlyIncomeRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void removeTenantData() {
+        TenantContext.runAs(TENANT_ID, () -> {
+            checkpointRepository.deleteById(JOB_NAME);
+            depositTransactionRepository.deleteAll();
+            eventRepository.deleteAll();
+            clientRepository.deleteAll();
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                dailyIncomeRepository.deleteAllByTenantId(TENANT_ID);
+                monthlyIncomeRepository.deleteAllByTenantId(TENANT_ID);
+            });
+        });
+    }
+
+    @Test
+    void givenDueAndNotYetDueEvents_whenSettleDueEvents_thenOnlyDueEventsAreChargedOnce() {
+        TenantContext.runAs(TENANT_ID, () -> {
+            Client firstClient = createClient("Settlement Client A");
+            Client secondClient = createClient("Settlement Client B");
+
+            Event dueLastWeek = createEvent(firstClient, 10, CUTOFF.toLocalDate().minusWeeks(1), 10, 11, EventStatus.CREATED);
+            Event dueToday = createEvent(firstClient, 15, CUTOFF.toLocalDate(), 9, 10, EventStatus.CREATED);
+            Event endsAfterCutoff = createEvent(firstClient, 20, CUTOFF.toLocalDate(), 11, 13, EventStatus.CREATED);
+            Event dueYesterday = createEvent(secondClient, 30, CUTOFF.toLocalDate().minusDays(1), 16, 17, EventStatus.CREATED);
+            Event dueTwoDaysAgo = createEvent(secondClient, 35, CUTOFF.toLocalDate().minusDays(2), 16, 17, EventStatus.CREATED);
+            Event tomorrow = createEvent(secondClient, 40, CUTOFF.toLocalDate().plusDays(1), 9, 10, EventStatus.CREATED);
+
+            int settled = settlementService.settleDueEvents(CUTOFF);
+
+            assertThat(settled).isEqualTo(4);
+            assertThat(statusOf(dueLastWeek)).isEqualTo(EventStatus.FINISHED);
+            assertThat(statusOf(dueToday)).isEqualTo(EventStatus.FINISHED);
+            assertThat(statusOf(dueYesterday)).isEqualTo(EventStatus.FINISHED);
+            assertThat(statusOf(dueTwoDaysAgo)).isEqualTo(EventStatus.FINISHED);
+            assertThat(statusOf(endsAfterCutoff)).isEqualTo(EventStatus.CREATED);
+            assertThat(statusOf(tomorrow)).isEqualTo(EventStatus.CREATED);
+
+            assertThat(depositOf(firstClient)).isEqualByComparingTo(INITIAL_DEPOSIT.subtract(BigDecimal.valueOf(25)));
+            assertThat(depositOf(secondClient)).isEqualByComparingTo(INITIAL_DEPOSIT.subtract(BigDecimal.valueOf(65)));
+            assertThat(settlementDebitOf(firstClient)).isEqualByComparingTo(BigDecimal.valueOf(-25));
+            assertThat(settlementDebitOf(secondClient)).isEqualByComparingTo(BigDecimal.valueOf(-65));
+
+            SettlementCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME).orElseThrow();
+            assertThat(checkpoint.getStatus()).isEqualTo(SettlementStatus.COMPLETED);
+            assertThat(checkpoint.getCutoff()).isEqualTo(CUTOFF);
+            assertThat(checkpoint.getLastEventId()).isEqualTo(dueTwoDaysAgo.getId());
+
+            // A second run with the same cutoff finds nothing left to charge
+            assertThat(settlementService.settleDueEvents(CUTOFF)).isZero();
+            assertThat(depositOf(firstClient)).isEqualByComparingTo(INITIAL_DEPOSIT.subtract(BigDecimal.valueOf(25)));
+            assertThat(depositOf(secondClient)).isEqualByComparingTo(INITIAL_DEPOSIT.subtract(BigDecimal.valueOf(65)));
+        });
+    }
+
+    @Test
+    void givenInterruptedRun_whenSettleDueEvents_thenRunResumesAfterLastEventWithoutDebitingTwice() {
+        TenantContext.runAs(TENANT_ID, () -> {
+            Client client = createClient("Settlement Client C");
+
+            // State left by a run that committed its first chunk and stopped
+            Event settledBeforeInterruption = createEvent(client, 10, CUTOFF.toLocalDate().minusDays(3), 9, 10, EventStatus.FINISHED);
+            depositLedgerService.post(client.getId(), BigDecimal.valueOf(-10), DepositTransactionType.SETTLEMENT);
+            checkpointRepository.save(new SettlementCheckpoint(JOB_NAME, CUTOFF, settledBeforeInterruption.getId(),
+                    SettlementStatus.RUNNING));
+
+            Event secondDue = createEvent(client, 20, CUTOFF.toLocalDate().minusDays(2), 9, 10, EventStatus.CREATED);
+            Event thirdDue = createEvent(client, 30, CUTOFF.toLocalDate().minusDays(1), 9, 10, EventStatus.CREATED);
+            Event fourthDue = createEvent(client, 40, CUTOFF.toLocalDate(), 9, 10, EventStatus.CREATED);
+
+            int settled = settlementService.settleDueEvents(CUTOFF);
+
+            assertThat(settled).isEqualTo(3);
+            assertThat(statusOf(settledBeforeInterruption)).isEqualTo(EventStatus.FINISHED);
+            assertThat(statusOf(secondDue)).isEqualTo(EventStatus.FINISHED);
+            assertThat(statusOf(thirdDue)).isEqualTo(EventStatus.FINISHED);
+            assertThat(statusOf(fourthDue)).isEqualTo(EventStatus.FINISHED);
+
+            assertThat(depositOf(client)).isEqualByComparingTo(INITIAL_DEPOSIT.subtract(BigDecimal.valueOf(100)));
+            assertThat(settlementDebitOf(client)).isEqualByComparingTo(BigDecimal.valueOf(-100));
+
+            assertThat(checkpointRepository.findById(JOB_NAME).orElseThrow().getStatus()).isEqualTo(SettlementStatus.COMPLETED);
+        });
+    }
+
+    private Client createClient(String fullName) {
+        return clientRepository.save(new Client(null, fullName, INITIAL_DEPOSIT, ClientStatus.ACTIVE));
+    }
+
+    private Event createEvent(Client client, int price, LocalDate date, int startHour, int finishHour, EventStatus status) {
+        return eventRepository.save(new Event(null, client, BigDecimal.valueOf(price), date,
+                LocalTime.of(startHour, 0), LocalTime.of(finishHour, 0), false, status, null));
+    }
+
+    private EventStatus statusOf(Event event) {
+        return eventRepository.findInTenant(event.getId()).orElseThrow().getEventStatus();
+    }
+
+    private BigDecimal depositOf(Client client) {
+        return clientRepository.findDepositBalance(client.getId()).orElseThrow().getDeposit();
+    }
+
+    private BigDecimal settlementDebitOf(Client client) {
+        List<DepositTransaction> transactions = depositTransactionRepository
+                .findAllByClientIdOrderByIdDesc(client.getId(), Pageable.unpaged()).getContent();
+        assertThat(transactions).allSatisfy(transaction ->
+                assertThat(transaction.getType()).isEqualTo(DepositTransactionType.SETTLEMENT));
+        return transactions.stream().map(DepositTransaction::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
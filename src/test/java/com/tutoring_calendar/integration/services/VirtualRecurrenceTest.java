@@ -0,0 +1,161 @@
+package com.tutoring_calendar.integration.services;
+
+import com.tutoring_calendar.TutoringCalendarApplication;
+import com.tutoring_calendar.dto.EventResponse;
+import com.tutoring_calendar.dto.EventUpdateDTO;
+import com.tutoring_calendar.dto.EventView;
+import com.tutoring_calendar.enums.SettlementStatus;
+import com.tutoring_calendar.models.Client;
+import com.tutoring_calendar.models.DailyIncome;
+import com.tutoring_calendar.models.Event;
+import com.tutoring_calendar.models.SettlementCheckpoint;
+import com.tutoring_calendar.repositories.ClientRepository;
+import com.tutoring_calendar.repositories.DailyIncomeRepository;
+import com.tutoring_calendar.repositories.EventRepository;
+import com.tutoring_calendar.repositories.MonthlyIncomeRepository;
+import com.tutoring_calendar.repositories.SettlementCheckpointRepository;
+import com.tutoring_calendar.services.EventService;
+import com.tutoring_calendar.services.RecurrenceService;
+import com.tutoring_calendar.services.SettlementService;
+import com.tutoring_calendar.tenancy.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Period;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Every test runs as a tenant of its own: the interval index of a tenant outlives the rows removed after
+// each test and would report the next test's series as a conflict, and the client name stays cached with
+// the ID of the deleted row. The dates are far ahead, the scheduled materialization never reaches them.
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = TutoringCalendarApplication.class, properties = "calendar.recurrence.mode=VIRTUAL")
+public class VirtualRecurrenceTest {
+
+    private static final List<String> TENANT_IDS = List.of("virtual-week-test", "virtual-edit-test", "virtual-due-test");
+    private static final String CLIENT_NAME = "Virtual Client";
+    // A Monday
+    private static final LocalDate SERIES_START = LocalDate.of(2042, 1, 6);
+
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private RecurrenceService recurrenceService;
+    @Autowired
+    private SettlementService settlementService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private SettlementCheckpointRepository checkpointRepository;
+    @Autowired
+    private DailyIncomeRepository dailyIncomeRepository;
+    @Autowired
+    private MonthlyIncomeRepository monthlyIncomeRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void removeTenantData() {
+        TENANT_IDS.forEach(tenantId -> TenantContext.runAs(tenantId, () -> {
+            checkpointRepository.deleteById("events:" + tenantId);
+            eventRepository.deleteAll();
+            clientRepository.deleteAll();
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                dailyIncomeRepository.deleteAllByTenantId(tenantId);
+                monthlyIncomeRepository.deleteAllByTenantId(tenantId);
+            });
+        }));
+    }
+
+    @Test
+    void givenSeries_whenGetWeek_thenOccurrenceIsProjectedWithoutRow() {
+        TenantContext.runAs("virtual-week-test", () -> {
+            Event series = addSeries();
+            LocalDate weekStart = SERIES_START.plusWeeks(2);
+
+            EventResponse week = eventService.getEventsForSelectedWeek(weekStart);
+
+            assertThat(week.getEvents()).hasSize(1);
+            EventView occurrence = week.getEvents().get(0);
+            assertThat(occurrence.getId()).isNull();
+            assertThat(occurrence.getOriginalId()).isEqualTo(series.getId());
+            assertThat(occurrence.getDate()).isEqualTo(weekStart);
+            assertThat(week.getClients()).containsKey(series.getClient().getId());
+            assertThat(eventRepository.findOccurrencesOfSeriesBetween(series.getId(), SERIES_START, weekStart.plusDays(6))).isEmpty();
+
+            // The series row and the virtual occurrences of January 13th, 20th and 27th, none of them passed yet
+            assertThat(week.getCurrentWeekIncome()).isEqualByComparingTo(BigDecimal.ZERO);
+            assertThat(week.getExpectedWeekIncome()).isEqualByComparingTo(BigDecimal.valueOf(50));
+            assertThat(week.getCurrentMonthIncome()).isEqualByComparingTo(BigDecimal.ZERO);
+            assertThat(week.getExpectedMonthIncome()).isEqualByComparingTo(BigDecimal.valueOf(200));
+        });
+    }
+
+    @Test
+    void givenVirtualOccurrence_whenUpdated_thenExceptionRowReplacesIt() {
+        TenantContext.runAs("virtual-edit-test", () -> {
+            Event series = addSeries();
+            LocalDate weekStart = SERIES_START.plusWeeks(3);
+
+            EventUpdateDTO update = new EventUpdateDTO();
+            update.setOriginalId(series.getId());
+            update.setDate(weekStart);
+            update.setPrice(BigDecimal.valueOf(80));
+            Event exception = eventService.updateEventData(update).orElseThrow();
+
+            assertThat(exception.getId()).isNotNull();
+            assertThat(exception.getOriginalId()).isEqualTo(series.getId());
+            assertThat(exception.isRepeatable()).isFalse();
+            List<Event> rows = eventRepository.findOccurrencesOfSeriesBetween(series.getId(), weekStart, weekStart.plusDays(6));
+            assertThat(rows).extracting(Event::getId).containsExactly(exception.getId());
+            assertThat(rows.get(0).getPrice()).isEqualByComparingTo(BigDecimal.valueOf(80));
+            assertThat(dailyIncomeRepository.findById(new DailyIncome.Key("virtual-edit-test", weekStart)).orElseThrow()
+                    .getExpectedIncome()).isEqualByComparingTo(BigDecimal.valueOf(80));
+
+            EventResponse week = eventService.getEventsForSelectedWeek(weekStart);
+            assertThat(week.getEvents()).extracting(EventView::getId).containsExactly(exception.getId());
+            assertThat(week.getExpectedWeekIncome()).isEqualByComparingTo(BigDecimal.valueOf(80));
+        });
+    }
+
+    @Test
+    void givenSettlementLongAgo_whenMaterializeDueOccurrences_thenEveryOccurrenceSinceItsCutoffIsPersisted() {
+        TenantContext.runAs("virtual-due-test", () -> {
+            Event series = addSeries();
+            checkpointRepository.save(new SettlementCheckpoint("events:virtual-due-test",
+                    SERIES_START.plusDays(2).atTime(12, 0), 0L, SettlementStatus.COMPLETED));
+            // Tuesday eight weeks later, the occurrence of that Monday is over, the one of the next is not
+            LocalDateTime now = SERIES_START.plusWeeks(8).plusDays(1).atTime(12, 0);
+
+            int materialized = recurrenceService.materializeDueOccurrences(settlementService.findLastCutoff().orElse(null), now);
+
+            assertThat(materialized).isEqualTo(8);
+            List<Event> occurrences = eventRepository.findOccurrencesOfSeriesBetween(series.getId(),
+                    SERIES_START, now.toLocalDate().plusWeeks(1));
+            assertThat(occurrences).extracting(Event::getDate)
+                    .containsExactlyInAnyOrderElementsOf(SERIES_START.plusWeeks(1).datesUntil(now.toLocalDate(), Period.ofWeeks(1)).toList());
+
+            // Nothing is left over for the next run
+            assertThat(recurrenceService.materializeDueOccurrences(settlementService.findLastCutoff().orElse(null), now)).isZero();
+        });
+    }
+
+    private Event addSeries() {
+        Event series = new Event(null, new Client(null, CLIENT_NAME, null, null), BigDecimal.valueOf(50), SERIES_START,
+                LocalTime.of(10, 0), LocalTime.of(11, 0), true, null, null);
+        return eventService.addEvent(series).orElseThrow();
+    }
+}
@@ -0,0 +1,51 @@
+package com.tutoring_calendar.integration.services;
+
+import com.tutoring_calendar.TutoringCalendarApplication;
+import com.tutoring_calendar.dto.EventResponse;
+import com.tutoring_calendar.dto.EventView;
+import com.tutoring_calendar.models.Client;
+import com.tutoring_calendar.models.Event;
+import com.tutoring_calendar.repositories.ClientRepository;
+import com.tutoring_calendar.services.EventService;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = TutoringCalendarApplication.class)
+public class WeekViewCacheTest {
+
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Test
+    void givenCachedWeek_whenEventAddedToWeek_thenWeekIsReassembled() {
+        LocalDate dateOfWeek = LocalDate.of(2024, 3, 6);
+
+        // The first read may materialize recurring events, which is itself an eviction
+        eventService.getEventsForSelectedWeek(dateOfWeek);
+        EventResponse cached = eventService.getEventsForSelectedWeek(dateOfWeek);
+        assertThat(eventService.getEventsForSelectedWeek(dateOfWeek)).isSameAs(cached);
+
+        Client client = clientRepository.findById(1L).orElseThrow(() -> new AssertionError("Client not found"));
+        Event newEvent = new Event(null, client, BigDecimal.valueOf(300), LocalDate.of(2024, 3, 7),
+                LocalTime.of(10, 0), LocalTime.of(11, 0), false, null, null);
+        Long id = eventService.addEvent(newEvent).orElseThrow().getId();
+
+        EventResponse reassembled = eventService.getEventsForSelectedWeek(dateOfWeek);
+        assertThat(reassembled).isNotSameAs(cached);
+        assertThat(reassembled.getEvents()).extracting(EventView::getId).contains(id);
+        assertThat(reassembled.getExpectedWeekIncome())
+                .isEqualByComparingTo(cached.getExpectedWeekIncome().add(BigDecimal.valueOf(300)));
+    }
+}
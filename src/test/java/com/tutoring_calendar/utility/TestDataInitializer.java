@@ -21,6 +21,11 @@ public class TestDataInitializer {
     @Bean
     public CommandLineRunner initializeTestData(ClientRepository clientRepository, EventRepository eventRepository) {
         return args -> {
+            // Test classes with different context configurations share the in-memory database
+            if (clientRepository.count() > 0) {
+                return;
+            }
+
             Client client1 = clientRepository.save(new Client(1L, "Artem Denysiuk", BigDecimal.ZERO, ClientStatus.ACTIVE));
             Client client2 = clientRepository.save(new Client(2L, "Max Stryzheus", BigDecimal.ZERO, ClientStatus.ARCHIVED));
             Client client3 = clientRepository.save(new Client(3L, "Vlad Pozniak", BigDecimal.ZERO, ClientStatus.ACTIVE));